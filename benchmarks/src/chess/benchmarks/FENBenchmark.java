@@ -0,0 +1,71 @@
+package chess.benchmarks;
+
+import chess.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks for reading and writing a position: FEN parsing, FEN generation, the binary form and the text board.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FENBenchmark {
+    @Benchmark
+    public Board parseFEN(PositionState state) {
+        return new Board(state.FEN);
+    }
+
+    @Benchmark
+    public Board setValues(PositionState state) {
+        state.board.setValues(state.FEN);
+        return state.board;
+    }
+
+    @Benchmark
+    public String getFEN(PositionState state) {
+        return state.board.getFEN();
+    }
+
+    // The allocation free forms: into a reused StringBuilder, and into a reused byte array.
+    @Benchmark
+    public StringBuilder appendFEN(PositionState state, FENBuffers buffers) {
+        buffers.builder.setLength(0);
+        return state.board.appendFEN(buffers.builder);
+    }
+
+    @Benchmark
+    public int writeFEN(PositionState state, FENBuffers buffers) {
+        return state.board.writeFEN(buffers.bytes, 0);
+    }
+
+    // A FEN round trip: write the position and read it back into the same board.
+    @Benchmark
+    public Board roundTrip(PositionState state, FENBuffers buffers) {
+        buffers.builder.setLength(0);
+        state.board.setValues(state.board.appendFEN(buffers.builder));
+        return state.board;
+    }
+
+    // The fixed width binary form, written and read back.
+    @Benchmark
+    public Board encodeDecode(PositionState state, FENBuffers buffers) {
+        state.board.encode(buffers.encoded, 0);
+        state.board.decode(buffers.encoded, 0);
+        return state.board;
+    }
+
+    @Benchmark
+    public String boardToString(PositionState state) {
+        return state.board.toString();
+    }
+
+    @State(Scope.Thread)
+    public static class FENBuffers {
+        public final StringBuilder builder = new StringBuilder(Board.MAX_FEN_LENGTH);
+        public final byte[] bytes = new byte[Board.MAX_FEN_LENGTH];
+        public final ByteBuffer encoded = ByteBuffer.allocateDirect(Board.ENCODED_BYTES);
+    }
+}
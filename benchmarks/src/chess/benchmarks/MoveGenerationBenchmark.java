@@ -0,0 +1,63 @@
+package chess.benchmarks;
+
+import chess.Move;
+import chess.MoveList;
+import chess.Position;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+// Benchmarks for move generation, making moves and check detection.
+// Each operation covers the whole position (every piece, or every move) of the side to move, so scores are per position.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+    @Benchmark
+    public void findMoves(PositionState state, Blackhole blackhole) {
+        for (Position position : state.piecePositions) {
+            blackhole.consume(state.board.findMoves(position));
+        }
+    }
+
+    @Benchmark
+    public Object getMovesOfAllPieces(PositionState state) {
+        return state.board.getMovesOfAllPieces(state.sideToMove);
+    }
+
+    // The allocation-free path that findMoves and getMovesOfAllPieces are adapters for.
+    @Benchmark
+    public MoveList generateMoves(PositionState state) {
+        state.moveList.clear();
+        state.board.generateMoves(state.sideToMove, state.moveList);
+        return state.moveList;
+    }
+
+    // Legal moves only, without making each move to test it for check.
+    @Benchmark
+    public MoveList generateLegalMoves(PositionState state) {
+        state.moveList.clear();
+        state.board.generateLegalMoves(state.sideToMove, state.moveList);
+        return state.moveList;
+    }
+
+    @Benchmark
+    public void resultsInCheck(PositionState state, Blackhole blackhole) {
+        for (Move move : state.moves) {
+            blackhole.consume(state.board.resultsInCheck(move, state.sideToMove));
+        }
+    }
+
+    // makeMove is paired with unmakeMove so that every invocation starts from the same position.
+    @Benchmark
+    public void makeMove(PositionState state, Blackhole blackhole) {
+        for (Move move : state.moves) {
+            state.board.makeMove(move);
+            blackhole.consume(state.board.getPlyCount());
+            state.board.unmakeMove();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package chess.benchmarks;
+
+import chess.Board;
+import chess.ParallelSearch;
+import chess.Perft;
+import chess.Search;
+import chess.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Time to depth of the Lazy SMP search for each thread count, from a cleared table. Dividing the one-thread score by the others
+// gives the speedup; the nodes counter, divided by the time, gives the combined speed of all threads.
+// Run with e.g. -p threads=1,2,4,8,16,32 to match the machine.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelSearchBenchmark {
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+    @Param({"6"})
+    public int depth;
+
+    private final String FEN = Perft.STANDARD_POSITIONS.get(1).FEN;
+    private TranspositionTable transpositionTable;
+    private ParallelSearch search;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transpositionTable = new TranspositionTable(64);
+        search = new ParallelSearch(threads, transpositionTable);
+    }
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        search.close();
+    }
+
+    @Benchmark
+    public Search.Result timeToDepth(NodeCounter counter) {
+        transpositionTable.clear();
+        Search.Result result = search.search(new Board(FEN), Search.Limits.depth(depth));
+        counter.nodes += result.nodes;
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package chess.benchmarks;
+
+import chess.Board;
+import chess.Move;
+import chess.MoveList;
+import chess.PieceColor;
+import chess.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+
+// Every benchmark runs once for each game phase, since piece count and mobility change the cost of most operations.
+@State(Scope.Thread)
+public class PositionState {
+    public static final String OPENING_FEN = "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+    public static final String MIDDLEGAME_FEN = "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10";
+    public static final String ENDGAME_FEN = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String phase;
+
+    public String FEN;
+    public Board board;
+    public PieceColor sideToMove;
+    public ArrayList<Position> piecePositions;
+    public ArrayList<Move> moves;
+    public MoveList moveList = new MoveList();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        FEN = switch (phase) {
+            case "opening" -> OPENING_FEN;
+            case "middlegame" -> MIDDLEGAME_FEN;
+            case "endgame" -> ENDGAME_FEN;
+            default -> throw new IllegalArgumentException("Unknown game phase \"" + phase + "\".");
+        };
+        board = new Board(FEN);
+        sideToMove = board.getToMove();
+        piecePositions = board.getPositionsOfAllPieces(sideToMove);
+        moves = new ArrayList<>(board.getMovesOfAllPieces(sideToMove));
+    }
+}
@@ -0,0 +1,45 @@
+package chess.benchmarks;
+
+import chess.Search;
+import chess.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Fixed-depth searches, as a workload that exercises move generation, makeMove and the transposition table together.
+// The table is cleared before each invocation, so every search does the same work. The secondary nodes result gives the tree size,
+// and running with and without move ordering shows how many nodes the ordering saves at the same depth.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+    @Param({"4"})
+    public int depth;
+    @Param({"true", "false"})
+    public boolean moveOrdering;
+
+    private final TranspositionTable transpositionTable = new TranspositionTable(16);
+    private final Search search = new Search(transpositionTable);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        search.setMoveOrdering(moveOrdering);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+    }
+
+    @Benchmark
+    public Search.Result search(PositionState state, NodeCounter counter) {
+        transpositionTable.clear();
+        Search.Result result = search.search(state.board, Search.Limits.depth(depth));
+        counter.nodes += result.nodes;
+        return result;
+    }
+}
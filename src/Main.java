@@ -1,6 +0,0 @@
-public class Main {
-    public static void main(String[] args) {
-        Board board = new Board("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
-        //System.out.println(board);
-    }
-}
\ No newline at end of file
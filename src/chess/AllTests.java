@@ -0,0 +1,29 @@
+package chess;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+@Suite.SuiteClasses({
+        PositionTest.class,
+        SquareTest.class,
+        BoardTest.class,
+        PerftTest.class,
+        AttackTablesTest.class,
+        MoveTest.class,
+        TranspositionTableTest.class,
+        SearchTest.class,
+        ParallelSearchTest.class,
+        EvaluatorTest.class,
+        PawnHashTableTest.class,
+        MoveOrderingTest.class,
+        MovePickerTest.class,
+        UciEngineTest.class,
+        FENBatchTest.class,
+        SANTest.class,
+        PGNReaderTest.class,
+        PolyglotBookTest.class
+})
+public class AllTests {
+    // This class doesn't have any methods, it just serves as a container for the test suite.
+}
\ No newline at end of file
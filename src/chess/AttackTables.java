@@ -0,0 +1,107 @@
+package chess;
+
+// Precomputed attack bitboards for every square, so move generation never has to probe the edge of the board.
+// Knights, kings and pawns use a plain lookup. Sliding pieces use one ray per direction: the ray is cut off
+// at the first blocker by removing the ray that continues beyond it.
+public class AttackTables {
+    public static final long[] KNIGHT_ATTACKS = new long[Bitboard.SQUARE_COUNT];
+    public static final long[] KING_ATTACKS = new long[Bitboard.SQUARE_COUNT];
+    // Indexed by [color ordinal][square]: the squares a pawn of that color on that square attacks.
+    public static final long[][] PAWN_ATTACKS = new long[2][Bitboard.SQUARE_COUNT];
+
+    // Directions that increase the square index come first, so the nearest blocker is the lowest set bit for them, and the highest for the rest.
+    private static final int NORTH = 0, EAST = 1, NORTH_EAST = 2, NORTH_WEST = 3, SOUTH = 4, WEST = 5, SOUTH_WEST = 6, SOUTH_EAST = 7;
+    private static final int[][] DIRECTIONS = {{1, 0}, {0, 1}, {1, 1}, {1, -1}, {-1, 0}, {0, -1}, {-1, -1}, {-1, 1}};
+    private static final long[][] RAYS = new long[DIRECTIONS.length][Bitboard.SQUARE_COUNT];
+    // For two squares on the same row, column or diagonal: BETWEEN holds the squares strictly between them,
+    // and LINE holds the whole line through both, edge to edge. Both are empty for squares that do not share a line.
+    public static final long[][] BETWEEN = new long[Bitboard.SQUARE_COUNT][Bitboard.SQUARE_COUNT];
+    public static final long[][] LINE = new long[Bitboard.SQUARE_COUNT][Bitboard.SQUARE_COUNT];
+
+    private static final int[][] KNIGHT_VECTORS = {{-1, -2}, {-2, -1}, {1, -2}, {2, -1}, {-1, 2}, {-2, 1}, {1, 2}, {2, 1}};
+    private static final int[][] KING_VECTORS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    static {
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            int row = Bitboard.rowOf(square);
+            int col = Bitboard.colOf(square);
+            KNIGHT_ATTACKS[square] = stepAttacks(row, col, KNIGHT_VECTORS);
+            KING_ATTACKS[square] = stepAttacks(row, col, KING_VECTORS);
+            PAWN_ATTACKS[PieceColor.White.ordinal()][square] = stepAttacks(row, col, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[PieceColor.Black.ordinal()][square] = stepAttacks(row, col, new int[][]{{-1, -1}, {-1, 1}});
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                long ray = 0L;
+                int targetRow = row + DIRECTIONS[direction][0];
+                int targetCol = col + DIRECTIONS[direction][1];
+                while (isInBounds(targetRow, targetCol)) {
+                    ray |= Bitboard.squareMask(Bitboard.squareIndex(targetRow, targetCol));
+                    targetRow += DIRECTIONS[direction][0];
+                    targetCol += DIRECTIONS[direction][1];
+                }
+                RAYS[direction][square] = ray;
+            }
+        }
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+                int opposite = (direction + DIRECTIONS.length / 2) % DIRECTIONS.length;
+                long line = RAYS[direction][square] | RAYS[opposite][square] | Bitboard.squareMask(square);
+                long between = 0L;
+                int row = Bitboard.rowOf(square) + DIRECTIONS[direction][0];
+                int col = Bitboard.colOf(square) + DIRECTIONS[direction][1];
+                while (isInBounds(row, col)) {
+                    int other = Bitboard.squareIndex(row, col);
+                    BETWEEN[square][other] = between;
+                    LINE[square][other] = line;
+                    between |= Bitboard.squareMask(other);
+                    row += DIRECTIONS[direction][0];
+                    col += DIRECTIONS[direction][1];
+                }
+            }
+        }
+    }
+
+    private AttackTables() { }
+
+    public static long rookAttacks(int square, long occupied) {
+        return positiveRayAttacks(NORTH, square, occupied) | positiveRayAttacks(EAST, square, occupied)
+                | negativeRayAttacks(SOUTH, square, occupied) | negativeRayAttacks(WEST, square, occupied);
+    }
+    public static long bishopAttacks(int square, long occupied) {
+        return positiveRayAttacks(NORTH_EAST, square, occupied) | positiveRayAttacks(NORTH_WEST, square, occupied)
+                | negativeRayAttacks(SOUTH_WEST, square, occupied) | negativeRayAttacks(SOUTH_EAST, square, occupied);
+    }
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    // The attacked squares include the first blocker, whichever side it belongs to; callers mask out their own pieces.
+    private static long positiveRayAttacks(int direction, int square, long occupied) {
+        long attacks = RAYS[direction][square];
+        long blockers = attacks & occupied;
+        if (blockers != 0L) {
+            attacks ^= RAYS[direction][Long.numberOfTrailingZeros(blockers)];
+        }
+        return attacks;
+    }
+    private static long negativeRayAttacks(int direction, int square, long occupied) {
+        long attacks = RAYS[direction][square];
+        long blockers = attacks & occupied;
+        if (blockers != 0L) {
+            attacks ^= RAYS[direction][63 - Long.numberOfLeadingZeros(blockers)];
+        }
+        return attacks;
+    }
+
+    private static long stepAttacks(int row, int col, int[][] vectors) {
+        long attacks = 0L;
+        for (int[] vec : vectors) {
+            if (isInBounds(row + vec[0], col + vec[1])) {
+                attacks |= Bitboard.squareMask(Bitboard.squareIndex(row + vec[0], col + vec[1]));
+            }
+        }
+        return attacks;
+    }
+    private static boolean isInBounds(int row, int col) {
+        return 0 <= row && row < Board.BOARD_DIMENSION && 0 <= col && col < Board.BOARD_DIMENSION;
+    }
+}
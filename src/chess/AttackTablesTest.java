@@ -0,0 +1,38 @@
+package chess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AttackTablesTest {
+    private static int square(String chessPosition) {
+        return Bitboard.squareIndex(Position.chessPositionToPosition(chessPosition));
+    }
+    private static long squares(String... chessPositions) {
+        long bitboard = 0L;
+        for (String chessPosition : chessPositions) {
+            bitboard |= Bitboard.squareMask(square(chessPosition));
+        }
+        return bitboard;
+    }
+    @Test
+    public void testStepAttacks() {
+        // Test that pieces in the corner and on the edge do not wrap around the board.
+        assertEquals(squares("b3", "c2"), AttackTables.KNIGHT_ATTACKS[square("a1")]);
+        assertEquals(squares("f7", "g6"), AttackTables.KNIGHT_ATTACKS[square("h8")]);
+        assertEquals(8, Bitboard.count(AttackTables.KNIGHT_ATTACKS[square("e4")]));
+        assertEquals(squares("g1", "g2", "h2"), AttackTables.KING_ATTACKS[square("h1")]);
+        assertEquals(squares("b3"), AttackTables.PAWN_ATTACKS[PieceColor.White.ordinal()][square("a2")]);
+        assertEquals(squares("d6", "f6"), AttackTables.PAWN_ATTACKS[PieceColor.Black.ordinal()][square("e7")]);
+    }
+    @Test
+    public void testSlidingAttacks() {
+        // Test that rays stop at, and include, the first blocker in each direction.
+        long occupied = squares("d6", "b4", "d2", "g4");
+        assertEquals(squares("d5", "d6", "c4", "b4", "e4", "f4", "g4", "d3", "d2"), AttackTables.rookAttacks(square("d4"), occupied));
+        assertEquals(14, Bitboard.count(AttackTables.rookAttacks(square("a1"), 0L)));
+        occupied = squares("c3", "f6");
+        assertEquals(squares("c3", "e5", "f6", "c5", "b6", "a7", "e3", "f2", "g1"), AttackTables.bishopAttacks(square("d4"), occupied));
+        assertEquals(AttackTables.rookAttacks(square("d4"), occupied) | AttackTables.bishopAttacks(square("d4"), occupied), AttackTables.queenAttacks(square("d4"), occupied));
+    }
+}
@@ -0,0 +1,42 @@
+package chess;
+
+// Helpers for working with bitboards, where each bit of a long represents one square of the board.
+// Squares are indexed as row * 8 + col, so a1 is bit 0, h1 is bit 7 and h8 is bit 63, matching Position's coordinates.
+public class Bitboard {
+    public static final int NO_SQUARE = -1;
+    public static final int SQUARE_COUNT = Board.BOARD_DIMENSION * Board.BOARD_DIMENSION;
+
+    private Bitboard() { }
+
+    public static int squareIndex(int row, int col) {
+        return row * Board.BOARD_DIMENSION + col;
+    }
+    public static int squareIndex(Position position) {
+        return squareIndex(position.row, position.col);
+    }
+    public static int rowOf(int square) {
+        return square >>> 3;
+    }
+    public static int colOf(int square) {
+        return square & 7;
+    }
+    public static Position positionOf(int square) {
+        return Position.of(square);
+    }
+    public static long squareMask(int square) {
+        return 1L << square;
+    }
+    public static boolean contains(long bitboard, int square) {
+        return (bitboard & squareMask(square)) != 0;
+    }
+    // Returns the index of the lowest set bit; callers are expected to check that the bitboard is non-empty.
+    public static int lowestSquare(long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
+    public static long removeLowestSquare(long bitboard) {
+        return bitboard & (bitboard - 1);
+    }
+    public static int count(long bitboard) {
+        return Long.bitCount(bitboard);
+    }
+}
@@ -0,0 +1,1391 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class Board {
+    public static final String STARTING_BOARD_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    public static final int BOARD_DIMENSION = 8;
+    public static final int PIECE_KINDS = 6;
+    public static final int EMPTY_SQUARE = -1;
+    // Offsets of each piece type within a color's block of piece indices, see getPieceIndex().
+    private static final int KING = PieceType.King.ordinal(), QUEEN = PieceType.Queen.ordinal(), ROOK = PieceType.Rook.ordinal(),
+            BISHOP = PieceType.Bishop.ordinal(), KNIGHT = PieceType.Knight.ordinal(), PAWN = PieceType.Pawn.ordinal();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final PieceColor[] PIECE_COLORS = PieceColor.values();
+    private static final long WHITE_PROMOTION_ROW = 0xFFL << 56, BLACK_PROMOTION_ROW = 0xFFL;
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.Queen, PieceType.Rook, PieceType.Bishop, PieceType.Knight};
+    // Castling rights are kept as a bitmask of these flags, in the same order as they appear in FEN.
+    public static final int WHITE_KINGSIDE = 1, WHITE_QUEENSIDE = 2, BLACK_KINGSIDE = 4, BLACK_QUEENSIDE = 8;
+    private static final String CASTLING_CHARACTERS = "KQkq";
+    private static final List<Optional<String>> CASTLING_RIGHTS_BY_MASK = buildCastlingRightsByMask();
+    // For each square, the castling rights that survive a move from or to that square (a rook or king leaving home, or a rook being captured).
+    private static final int[] CASTLING_RIGHTS_KEPT = buildCastlingRightsKept();
+    private static final int INITIAL_UNDO_CAPACITY = 256;
+    // Piece values for static exchange evaluation, indexed by PieceType ordinal. The king is worth more than everything else together.
+    public static final int[] SEE_VALUES = {20000, 900, 500, 330, 320, 100};
+    // Every capture removes a piece, so an exchange has fewer captures than there are pieces.
+    private static final int MAX_EXCHANGE_LENGTH = 32;
+    // The longest FEN writeFEN can produce: 64 pieces and 7 slashes, then the other fields with their spaces and two ten digit numbers.
+    public static final int MAX_FEN_LENGTH = 71 + 1 + 4 + 2 + 10 + 10 + 5;
+    // The binary form of a position (see encode) holds 4 bits for each piece, in 16 bytes, so it fits any position reachable in a game.
+    public static final int ENCODED_BYTES = 32;
+    private static final int MAX_ENCODED_PIECES = 32;
+    // FEN characters to piece indices (EMPTY_SQUARE for every other character) and back.
+    private static final int[] PIECE_BY_CHARACTER = buildPieceByCharacter();
+    private static final byte[] CHARACTER_BY_PIECE = buildCharacterByPiece();
+    // The bitboards are the source of truth for the position. There is one bitboard for each piece type and color,
+    // indexed by getPieceIndex(), plus occupancy bitboards for each color and for the whole board.
+    private long[] pieceBitboards;
+    private long[] colorBitboards;
+    private long occupiedBitboard;
+    // Mailbox mirror of the bitboards, holding the piece index on each square (or EMPTY_SQUARE), for constant time lookups.
+    private int[] pieces;
+    private PieceColor toMove; // 0 for white, 1 for black
+    // Kept in sync with castlingMask, and always one of the shared instances in CASTLING_RIGHTS_BY_MASK.
+    public Optional<String> castlingRights;
+    private int castlingMask;
+    private int enPassantTargetSquare;
+    int halfMoveClock;
+    int fullMoveNumber;
+    // One packed record per move made, see pushUndoRecord(), so that unmakeMove() can restore the previous position without allocating.
+    private long[] undoStack = new long[INITIAL_UNDO_CAPACITY];
+    private int undoCount;
+    // The square of each side's king, indexed by color ordinal, kept up to date by putPiece and removePiece.
+    private int[] kingSquares;
+    // The Zobrist key of the position (see Zobrist), updated with every change to the position. The key before each move is kept
+    // alongside the undo stack, so unmakeMove() restores it instead of undoing each change.
+    private long hashKey;
+    // The Zobrist key of the pawns alone, which identifies the pawn structure for PawnHashTable.
+    private long pawnKey;
+    private long[] keyHistory = new long[INITIAL_UNDO_CAPACITY];
+    // Running totals of the evaluation terms (see Evaluator), from white's point of view, kept up to date by putPiece and removePiece.
+    private int middlegameScore;
+    private int endgameScore;
+    private int gamePhase;
+    // Scratch space for see(), one entry per capture in the exchange.
+    private final int[] seeGains = new int[MAX_EXCHANGE_LENGTH];
+    // Scratch space for reading and writing FENs: the pieces of a FEN being read, and the characters of one being written.
+    private final int[] parsedPieces = new int[Bitboard.SQUARE_COUNT];
+    private final byte[] fenBuffer = new byte[MAX_FEN_LENGTH];
+    private final char[] fenCharacters = new char[MAX_FEN_LENGTH];
+    private final long[] encodedPieceCodes = new long[2];
+
+    // Construct a board with a given FEN code, which is the standard for a chess position
+    /*
+    Method Tested in PositionTest.java
+    Description: This method takes in a String, the Forsyth–Edwards Notation (or FEN for short) of a position, and creates a board that contains all the information given by this notation.
+    Parameters: chessPosition(String) -> the position to check
+    Examples: refer to test method.
+     */
+    public Board(String FEN) {
+        setValues(FEN);
+    }
+    public Board() {
+        this(STARTING_BOARD_FEN);
+    }
+    public void setValues(CharSequence FEN) {
+        String exceptionMsg = scanFEN(FEN, true);
+        if (exceptionMsg != null) throw new IllegalArgumentException(exceptionMsg);
+    }
+    /*
+    Method Tested in BoardTest.java
+    Description: This method reads the piece placement field of a FEN into a grid of squares, without changing this board. The field goes
+                 through the same parser as a whole FEN, with the other fields filled in, so it is checked the same way.
+    Parameters: boardAsFENNotation(String) -> the piece placement, e.g. rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR
+    Returns: the squares, indexed by [rank][file] from a1, as getBoard() gives them.
+    Examples: refer to test method.
+     */
+    public Square[][] readFEN(String boardAsFENNotation) {
+        return new Board(boardAsFENNotation + " w - - 0 1").getBoard();
+    }
+
+    public String getExceptionMessageForFENValidityIfExists(CharSequence FEN) {
+        return scanFEN(FEN, false);
+    }
+    // A FEN only has to be well formed; this checks what the move generator relies on: one king per side, and the side that is not to
+    // move not in check. Returns null if the position is fine.
+    public String getExceptionMessageForPositionValidityIfExists() {
+        for (PieceColor color : PIECE_COLORS) {
+            int kings = Long.bitCount(getPieceBitboard(PieceType.King, color));
+            if (kings != 1) return color + " has " + kings + " kings, but should have 1.";
+        }
+        if (isInCheck(PieceColor.getOpposite(this.toMove))) return this.toMove + " is to move, but can capture the other king.";
+        return null;
+    }
+    /*
+    Method Tested in BoardTest.java
+    Description: This method reads a FEN in one pass over its characters, checking each field as it goes. The pieces are read into
+                 scratch space first, so the board is only changed once the whole FEN is known to be valid, and then in place, without
+                 allocating. Fields are separated by single spaces, and trailing whitespace is ignored.
+    Parameters: FEN(CharSequence) -> the position to read
+                isLoading(boolean) -> whether to load the position into this board, or only to check it
+    Returns: null if the FEN is valid, or else a message saying what is wrong with it and at which character offset.
+    Examples: refer to test method.
+     */
+    private String scanFEN(CharSequence FEN, boolean isLoading) {
+        int length = FEN.length();
+        while (length > 0 && Character.isWhitespace(FEN.charAt(length - 1))) length--;
+        // Part 1 - position, from the eighth rank down, each from the a file across
+        Arrays.fill(this.parsedPieces, EMPTY_SQUARE);
+        int rank = BOARD_DIMENSION - 1;
+        int file = 0;
+        int i = 0;
+        for (; i < length && FEN.charAt(i) != ' '; i++) {
+            char c = FEN.charAt(i);
+            if (c == '/') {
+                if (file != BOARD_DIMENSION) return FENError(FEN, i, "rank " + (rank + 1) + " has " + file + " files, but should have " + BOARD_DIMENSION + ".");
+                if (rank == 0) return FENError(FEN, i, "the board position has more than " + BOARD_DIMENSION + " ranks.");
+                rank--;
+                file = 0;
+            }
+            else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > BOARD_DIMENSION) return FENError(FEN, i, "rank " + (rank + 1) + " has more than " + BOARD_DIMENSION + " files.");
+            }
+            else {
+                int piece = (c < PIECE_BY_CHARACTER.length) ? PIECE_BY_CHARACTER[c] : EMPTY_SQUARE;
+                if (piece == EMPTY_SQUARE) return FENError(FEN, i, "'" + c + "' is not a piece or a number of empty squares.");
+                if (file >= BOARD_DIMENSION) return FENError(FEN, i, "rank " + (rank + 1) + " has more than " + BOARD_DIMENSION + " files.");
+                this.parsedPieces[Bitboard.squareIndex(rank, file)] = piece;
+                file++;
+            }
+        }
+        if (rank != 0 || file != BOARD_DIMENSION) return FENError(FEN, i, "the board position ends after " + (BOARD_DIMENSION - rank) + " ranks, or before the end of the last one.");
+        // Part 2 - whose move it is
+        if (++i >= length) return FENError(FEN, i, "the player to move is missing.");
+        PieceColor toMove = switch (FEN.charAt(i)) {
+            case 'w' -> PieceColor.White;
+            case 'b' -> PieceColor.Black;
+            default -> null;
+        };
+        if (toMove == null || i + 1 < length && FEN.charAt(i + 1) != ' ') return FENError(FEN, i, "the player to move is not \"w\" or \"b\".");
+        i += 2;
+        // Part 3 - castling rights, "-" or some of KQkq in that order
+        if (i >= length) return FENError(FEN, i, "the castling rights are missing.");
+        int castlingMask = 0;
+        if (FEN.charAt(i) == '-') {
+            i++;
+        }
+        else {
+            if (FEN.charAt(i) == ' ') return FENError(FEN, i, "the castling rights are missing.");
+            for (; i < length && FEN.charAt(i) != ' '; i++) {
+                int index = CASTLING_CHARACTERS.indexOf(FEN.charAt(i));
+                if (index < 0 || castlingMask >= 1 << index) return FENError(FEN, i, "the castling rights are not \"-\" or some of \"KQkq\", in that order.");
+                castlingMask |= 1 << index;
+            }
+        }
+        if (i < length && FEN.charAt(i) != ' ') return FENError(FEN, i, "the castling rights are not \"-\" or some of \"KQkq\", in that order.");
+        i++;
+        // Part 4 - en passant target square
+        if (i >= length) return FENError(FEN, i, "the en passant target square is missing.");
+        int enPassantTargetSquare = Bitboard.NO_SQUARE;
+        if (FEN.charAt(i) == '-') {
+            i++;
+        }
+        else {
+            char fileCharacter = FEN.charAt(i);
+            char rankCharacter = (i + 1 < length) ? FEN.charAt(i + 1) : ' ';
+            if (fileCharacter < 'a' || fileCharacter > 'h' || rankCharacter < '1' || rankCharacter > '8') return FENError(FEN, i, "the en passant target square is not \"-\" or a square from a1 to h8.");
+            enPassantTargetSquare = Bitboard.squareIndex(rankCharacter - '1', fileCharacter - 'a');
+            i += 2;
+        }
+        if (i < length && FEN.charAt(i) != ' ') return FENError(FEN, i, "the en passant target square is not \"-\" or a square from a1 to h8.");
+        i++;
+        // Part 5 - half move clock, which must be from 0 to 49
+        int start = i;
+        long halfMoveClock = 0L;
+        for (; i < length && FEN.charAt(i) != ' '; i++) {
+            char c = FEN.charAt(i);
+            if (c < '0' || c > '9') return FENError(FEN, i, "the half move clock is not a number.");
+            halfMoveClock = Math.min(halfMoveClock * 10 + (c - '0'), Integer.MAX_VALUE);
+        }
+        if (i == start) return FENError(FEN, i, "the half move clock is missing.");
+        if (halfMoveClock >= 50) return FENError(FEN, start, "the half move clock is " + halfMoveClock + ", which is not between 0 and 49.");
+        i++;
+        // Part 6 - full move number, which must be at least 1
+        start = i;
+        long fullMoveNumber = 0L;
+        for (; i < length && FEN.charAt(i) != ' '; i++) {
+            char c = FEN.charAt(i);
+            if (c < '0' || c > '9') return FENError(FEN, i, "the full move number is not a number.");
+            fullMoveNumber = Math.min(fullMoveNumber * 10 + (c - '0'), Integer.MAX_VALUE);
+        }
+        if (i == start) return FENError(FEN, i, "the full move number is missing.");
+        if (fullMoveNumber < 1) return FENError(FEN, start, "the full move number is " + fullMoveNumber + ", which is not at least 1.");
+        if (i < length) return FENError(FEN, i, "there is more after the six fields of a FEN.");
+
+        if (isLoading) loadParsedPieces(toMove, castlingMask, enPassantTargetSquare, (int) halfMoveClock, (int) fullMoveNumber);
+        return null;
+    }
+    // Replaces the position with the pieces in parsedPieces and the given state, reusing the board's arrays.
+    private void loadParsedPieces(PieceColor toMove, int castlingMask, int enPassantTargetSquare, int halfMoveClock, int fullMoveNumber) {
+        clearPieces();
+        this.hashKey = 0L;
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            if (this.parsedPieces[square] != EMPTY_SQUARE) putPiece(this.parsedPieces[square], square);
+        }
+        this.toMove = toMove;
+        this.castlingMask = castlingMask;
+        this.castlingRights = CASTLING_RIGHTS_BY_MASK.get(castlingMask);
+        this.enPassantTargetSquare = enPassantTargetSquare;
+        this.halfMoveClock = halfMoveClock;
+        this.fullMoveNumber = fullMoveNumber;
+        this.undoCount = 0;
+        // putPiece has added the pieces to the key; the rest is added here, as Zobrist.compute would.
+        this.hashKey ^= ((toMove == PieceColor.Black) ? Zobrist.BLACK_TO_MOVE : 0L) ^ Zobrist.CASTLING[castlingMask] ^ enPassantKey();
+    }
+
+    /*
+    Method Tested in BoardTest.java
+    Description: This method writes the position in a fixed width binary form of ENCODED_BYTES bytes: the occupied squares as a
+                 64-bit mask, then the piece index (see getPieceIndex) of each occupied square as 4 bits, from a1 up to h8, and last
+                 the side to move, castling rights, en passant target square and clocks packed into 64 bits. Everything is written most
+                 significant byte first, whatever the order of the buffer, so equal positions always give equal bytes, and the bytes
+                 sort and compare the same on every machine. The form is lossless: decode gives back the same FEN.
+    Parameters: buffer(ByteBuffer) -> where to write, at its position, which is moved past the position written
+    Returns: nothing.
+    Examples: refer to test method.
+     */
+    public void encode(ByteBuffer buffer) {
+        encode(buffer, buffer.position());
+        buffer.position(buffer.position() + ENCODED_BYTES);
+    }
+    // Writes at the given index, leaving the position of the buffer alone, for filling large buffers of positions from several threads.
+    public void encode(ByteBuffer buffer, int index) {
+        if (Long.bitCount(this.occupiedBitboard) > MAX_ENCODED_PIECES) {
+            throw new IllegalArgumentException("Only positions with up to " + MAX_ENCODED_PIECES + " pieces can be encoded, but " + getFEN() + " has " + Long.bitCount(this.occupiedBitboard) + ".");
+        }
+        if (this.halfMoveClock > 0xFFFF) throw new IllegalArgumentException("Half move clock " + this.halfMoveClock + " is too large to encode.");
+        // Two 64-bit words of piece codes, the first piece in the highest 4 bits of the first word.
+        long[] codes = this.encodedPieceCodes;
+        codes[0] = 0L;
+        codes[1] = 0L;
+        int count = 0;
+        for (long occupied = this.occupiedBitboard; occupied != 0L; occupied = Bitboard.removeLowestSquare(occupied), count++) {
+            codes[count >>> 4] |= (long) this.pieces[Bitboard.lowestSquare(occupied)] << (60 - 4 * (count & 15));
+        }
+        long state = (this.toMove == PieceColor.Black ? 1L : 0L)
+                | ((long) this.castlingMask << 1)
+                | ((long) (this.enPassantTargetSquare + 1) << 5)
+                | ((long) this.halfMoveClock << 16)
+                | ((long) this.fullMoveNumber << 32);
+        putBigEndian(buffer, index, this.occupiedBitboard);
+        putBigEndian(buffer, index + 8, codes[0]);
+        putBigEndian(buffer, index + 16, codes[1]);
+        putBigEndian(buffer, index + 24, state);
+    }
+    /*
+    Method Tested in BoardTest.java
+    Description: This method replaces the position with one written by encode. Bytes that encode could not have written are
+                 rejected, and the board is left as it was.
+    Parameters: buffer(ByteBuffer) -> where to read, at its position, which is moved past the position read
+    Returns: nothing.
+    Examples: refer to test method.
+     */
+    public void decode(ByteBuffer buffer) {
+        decode(buffer, buffer.position());
+        buffer.position(buffer.position() + ENCODED_BYTES);
+    }
+    public void decode(ByteBuffer buffer, int index) {
+        long occupied = getBigEndian(buffer, index);
+        long[] codes = this.encodedPieceCodes;
+        codes[0] = getBigEndian(buffer, index + 8);
+        codes[1] = getBigEndian(buffer, index + 16);
+        long state = getBigEndian(buffer, index + 24);
+        int pieceCount = Long.bitCount(occupied);
+        if (pieceCount > MAX_ENCODED_PIECES) throw new IllegalArgumentException("Encoded position has " + pieceCount + " pieces, but at most " + MAX_ENCODED_PIECES + " can be encoded.");
+        Arrays.fill(this.parsedPieces, EMPTY_SQUARE);
+        int count = 0;
+        for (; occupied != 0L; occupied = Bitboard.removeLowestSquare(occupied), count++) {
+            int piece = (int) (codes[count >>> 4] >>> (60 - 4 * (count & 15))) & 0xF;
+            if (piece >= PIECE_KINDS * 2) throw new IllegalArgumentException("Encoded position has piece code " + piece + ", but codes only go up to " + (PIECE_KINDS * 2 - 1) + ".");
+            this.parsedPieces[Bitboard.lowestSquare(occupied)] = piece;
+        }
+        // The codes after the last piece are zero, as are the unused bits of the state.
+        long unusedCodes = (count >= 16) ? codes[1] << (4 * (count - 16)) : (codes[0] << (4 * count)) | codes[1];
+        if (unusedCodes != 0L && count < MAX_ENCODED_PIECES) throw new IllegalArgumentException("Encoded position has piece codes past its last piece.");
+        int enPassantTargetSquare = (int) ((state >>> 5) & 0x7F) - 1;
+        int fullMoveNumber = (int) (state >>> 32);
+        if ((state & 0xF000L) != 0L || enPassantTargetSquare >= Bitboard.SQUARE_COUNT || fullMoveNumber < 1) {
+            throw new IllegalArgumentException("Encoded position has an invalid state word " + Long.toHexString(state) + ".");
+        }
+        loadParsedPieces((state & 1L) == 0L ? PieceColor.White : PieceColor.Black, (int) ((state >>> 1) & 0xF), enPassantTargetSquare,
+                (int) ((state >>> 16) & 0xFFFF), fullMoveNumber);
+    }
+    // ByteBuffer reads and writes in the buffer's own order, so the value is reversed when that is not big endian.
+    private static void putBigEndian(ByteBuffer buffer, int index, long value) {
+        buffer.putLong(index, (buffer.order() == ByteOrder.BIG_ENDIAN) ? value : Long.reverseBytes(value));
+    }
+    private static long getBigEndian(ByteBuffer buffer, int index) {
+        long value = buffer.getLong(index);
+        return (buffer.order() == ByteOrder.BIG_ENDIAN) ? value : Long.reverseBytes(value);
+    }
+    private static String FENError(CharSequence FEN, int offset, String problem) {
+        return "FEN \"" + FEN + "\" is invalid at character " + offset + ": " + problem;
+    }
+
+    public String getFEN() {
+        int length = writeFEN(this.fenBuffer, 0);
+        return new String(this.fenBuffer, 0, length, StandardCharsets.ISO_8859_1);
+    }
+    // Appending the characters in bulk is several times faster than appending them one at a time.
+    public StringBuilder appendFEN(StringBuilder builder) {
+        int length = writeFEN(this.fenBuffer, 0);
+        for (int i = 0; i < length; i++) {
+            this.fenCharacters[i] = (char) this.fenBuffer[i];
+        }
+        return builder.append(this.fenCharacters, 0, length);
+    }
+    public void appendFEN(Appendable appendable) throws IOException {
+        int length = writeFEN(this.fenBuffer, 0);
+        for (int i = 0; i < length; i++) {
+            appendable.append((char) this.fenBuffer[i]);
+        }
+    }
+    /*
+    Method Tested in BoardTest.java
+    Description: This method writes the FEN of the position as ASCII bytes, without allocating.
+    Parameters: buffer(byte[]) -> where to write, which must have room for MAX_FEN_LENGTH bytes after the offset
+                offset(int) -> where in the buffer to start
+    Returns: the offset just past the last byte written.
+    Examples: refer to test method.
+     */
+    public int writeFEN(byte[] buffer, int offset) {
+        if (offset < 0 || buffer.length - offset < MAX_FEN_LENGTH) {
+            throw new IllegalArgumentException("Writing a FEN needs " + MAX_FEN_LENGTH + " bytes after offset " + offset + ", but the buffer has " + buffer.length + " bytes.");
+        }
+        int i = offset;
+        // Part 1 - position
+        for (int rank = BOARD_DIMENSION - 1; rank >= 0; rank--) {
+            int emptySquareCount = 0;
+            for (int file = 0; file < BOARD_DIMENSION; file++) {
+                int piece = this.pieces[Bitboard.squareIndex(rank, file)];
+                if (piece == EMPTY_SQUARE) {
+                    emptySquareCount++;
+                }
+                else {
+                    if (emptySquareCount > 0) {
+                        buffer[i++] = (byte) ('0' + emptySquareCount);
+                        emptySquareCount = 0;
+                    }
+                    buffer[i++] = CHARACTER_BY_PIECE[piece];
+                }
+            }
+            if (emptySquareCount > 0) {
+                buffer[i++] = (byte) ('0' + emptySquareCount);
+            }
+            if (rank != 0) {
+                buffer[i++] = '/';
+            }
+        }
+        // Part 2 - whose move it is
+        buffer[i++] = ' ';
+        buffer[i++] = (byte) ((this.toMove == PieceColor.White) ? 'w' : 'b');
+        // Part 3 - castling rights
+        buffer[i++] = ' ';
+        if (this.castlingMask == 0) {
+            buffer[i++] = '-';
+        }
+        for (int j = 0; j < CASTLING_CHARACTERS.length(); j++) {
+            if ((this.castlingMask & (1 << j)) != 0) buffer[i++] = (byte) CASTLING_CHARACTERS.charAt(j);
+        }
+        // Part 4 - en passant target square
+        buffer[i++] = ' ';
+        if (this.enPassantTargetSquare == Bitboard.NO_SQUARE) {
+            buffer[i++] = '-';
+        }
+        else {
+            buffer[i++] = (byte) ('a' + Bitboard.colOf(this.enPassantTargetSquare));
+            buffer[i++] = (byte) ('1' + Bitboard.rowOf(this.enPassantTargetSquare));
+        }
+        // Part 5 - half move clock
+        buffer[i++] = ' ';
+        i = writeNumber(buffer, i, this.halfMoveClock);
+        // Part 6 - full move number
+        buffer[i++] = ' ';
+        return writeNumber(buffer, i, this.fullMoveNumber);
+    }
+    private static int writeNumber(byte[] buffer, int offset, int number) {
+        int digits = 1;
+        for (int rest = number / 10; rest != 0; rest /= 10) digits++;
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            buffer[i] = (byte) ('0' + number % 10);
+            number /= 10;
+        }
+        return offset + digits;
+    }
+
+    //If we already have the board info, such as if we have to simulate moves, then we can construct the class with given information usually extracted from FEN
+    public Board(Square[][] board, PieceColor toMove, String castlingRights, Position enPassantTargetSquare, int halfMoveClock, int fullMove) {
+        clearPieces();
+        for (Square[] rank : board) {
+            for (Square square : rank) {
+                if (square.getPieceType() != PieceType.Empty) {
+                    putPiece(getPieceIndex(square.getPieceType(), square.getPieceColor().orElseThrow()), Bitboard.squareIndex(square.getPosition()));
+                }
+            }
+        }
+        this.toMove = toMove;
+        setCastlingMask(parseCastlingRights(castlingRights));
+        this.enPassantTargetSquare = (enPassantTargetSquare == null) ? Bitboard.NO_SQUARE : Bitboard.squareIndex(enPassantTargetSquare);
+        this.halfMoveClock = halfMoveClock;
+        this.fullMoveNumber = fullMove;
+        this.hashKey = Zobrist.compute(this);
+    }
+
+    public Board(Board other) {
+        this.pieceBitboards = other.pieceBitboards.clone();
+        this.colorBitboards = other.colorBitboards.clone();
+        this.occupiedBitboard = other.occupiedBitboard;
+        this.pieces = other.pieces.clone();
+        this.kingSquares = other.kingSquares.clone();
+        this.toMove = other.toMove;
+        this.castlingRights = other.castlingRights;
+        this.castlingMask = other.castlingMask;
+        this.enPassantTargetSquare = other.enPassantTargetSquare;
+        this.halfMoveClock = other.halfMoveClock;
+        this.fullMoveNumber = other.fullMoveNumber;
+        this.undoStack = other.undoStack.clone();
+        this.undoCount = other.undoCount;
+        this.hashKey = other.hashKey;
+        this.pawnKey = other.pawnKey;
+        this.keyHistory = other.keyHistory.clone();
+        this.middlegameScore = other.middlegameScore;
+        this.endgameScore = other.endgameScore;
+        this.gamePhase = other.gamePhase;
+    }
+
+    public void switchToMove() {
+        hashKey ^= enPassantKey();
+        toMove = PieceColor.getOpposite(toMove);
+        hashKey ^= Zobrist.BLACK_TO_MOVE ^ enPassantKey();
+    }
+    public void reset(CharSequence FEN) {
+        setValues(FEN);
+    }
+    public void reset() {
+        reset(STARTING_BOARD_FEN);
+    }
+    public void incrementFullMoveNumber() {
+        fullMoveNumber++;
+    }
+    public void incrementHalfMoveClock() {
+        halfMoveClock++;
+    }
+    public void resetHalfMoveClock() {
+        halfMoveClock = 0;
+    }
+    // Squares are built on demand from the bitboards, so changes made to the returned Square do not affect the board.
+    public Square getSquareAtPosition(Position pos) {
+        int piece = this.pieces[Bitboard.squareIndex(pos)];
+        if (piece == EMPTY_SQUARE) {
+            return new Square(pos);
+        }
+        return new Square(pos, getPieceTypeFromIndex(piece), getPieceColorFromIndex(piece));
+    }
+    public Square getSquareAtPosition(String pos) {
+        return getSquareAtPosition(Position.chessPositionToPosition(pos));
+    }
+    public PieceColor getToMove() {
+        return this.toMove;
+    }
+    public int getEnPassantTargetSquare() {
+        return this.enPassantTargetSquare;
+    }
+    // Positions with the same pieces, side to move, castling rights and usable en passant capture have the same key.
+    public long hashKey() {
+        return this.hashKey;
+    }
+    public long pawnKey() {
+        return this.pawnKey;
+    }
+    public int getMiddlegameScore() {
+        return this.middlegameScore;
+    }
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+    public int getGamePhase() {
+        return this.gamePhase;
+    }
+    // Returns a snapshot of the board as squares; like getSquareAtPosition, it is not backed by the board.
+    public Square[][] getBoard() {
+        Square[][] board = new Square[BOARD_DIMENSION][BOARD_DIMENSION];
+        for (int rank = 0; rank < BOARD_DIMENSION; rank++) {
+            for (int file = 0; file < BOARD_DIMENSION; file++) {
+                board[rank][file] = getSquareAtPosition(Position.of(rank, file));
+            }
+        }
+        return board;
+    }
+    public int getPieceAt(int square) {
+        return this.pieces[square];
+    }
+    public PieceType getPieceTypeAt(Position pos) {
+        int piece = this.pieces[Bitboard.squareIndex(pos)];
+        return (piece == EMPTY_SQUARE) ? PieceType.Empty : getPieceTypeFromIndex(piece);
+    }
+    public long getPieceBitboard(PieceType pieceType, PieceColor pieceColor) {
+        return this.pieceBitboards[getPieceIndex(pieceType, pieceColor)];
+    }
+    public long getColorBitboard(PieceColor pieceColor) {
+        return this.colorBitboards[pieceColor.ordinal()];
+    }
+    public long getOccupiedBitboard() {
+        return this.occupiedBitboard;
+    }
+
+    // Reuses the arrays once they exist, so that resetting a board does not allocate.
+    private void clearPieces() {
+        if (this.pieces == null) {
+            this.pieceBitboards = new long[PIECE_KINDS * 2];
+            this.colorBitboards = new long[2];
+            this.pieces = new int[Bitboard.SQUARE_COUNT];
+            this.kingSquares = new int[2];
+        }
+        Arrays.fill(this.pieceBitboards, 0L);
+        Arrays.fill(this.colorBitboards, 0L);
+        this.occupiedBitboard = 0L;
+        Arrays.fill(this.pieces, EMPTY_SQUARE);
+        Arrays.fill(this.kingSquares, Bitboard.NO_SQUARE);
+        this.middlegameScore = 0;
+        this.endgameScore = 0;
+        this.gamePhase = 0;
+        this.pawnKey = 0L;
+    }
+    // putPiece and removePiece are the only places where the bitboards and the mailbox are changed, which keeps them in sync.
+    private void putPiece(int piece, int square) {
+        long mask = Bitboard.squareMask(square);
+        this.pieceBitboards[piece] |= mask;
+        this.colorBitboards[piece / PIECE_KINDS] |= mask;
+        this.occupiedBitboard |= mask;
+        this.pieces[square] = piece;
+        this.hashKey ^= Zobrist.PIECE_SQUARE[piece][square];
+        this.middlegameScore += Evaluator.MIDDLEGAME[piece][square];
+        this.endgameScore += Evaluator.ENDGAME[piece][square];
+        this.gamePhase += Evaluator.PHASE[piece];
+        if (piece % PIECE_KINDS == KING) {
+            this.kingSquares[piece / PIECE_KINDS] = square;
+        }
+        else if (piece % PIECE_KINDS == PAWN) {
+            this.pawnKey ^= Zobrist.PIECE_SQUARE[piece][square];
+        }
+    }
+    private void removePiece(int square) {
+        int piece = this.pieces[square];
+        long mask = ~Bitboard.squareMask(square);
+        this.pieceBitboards[piece] &= mask;
+        this.colorBitboards[piece / PIECE_KINDS] &= mask;
+        this.occupiedBitboard &= mask;
+        this.pieces[square] = EMPTY_SQUARE;
+        this.hashKey ^= Zobrist.PIECE_SQUARE[piece][square];
+        this.middlegameScore -= Evaluator.MIDDLEGAME[piece][square];
+        this.endgameScore -= Evaluator.ENDGAME[piece][square];
+        this.gamePhase -= Evaluator.PHASE[piece];
+        if (piece % PIECE_KINDS == KING && this.kingSquares[piece / PIECE_KINDS] == square) {
+            this.kingSquares[piece / PIECE_KINDS] = Bitboard.NO_SQUARE;
+        }
+        else if (piece % PIECE_KINDS == PAWN) {
+            this.pawnKey ^= Zobrist.PIECE_SQUARE[piece][square];
+        }
+    }
+
+    public static int getPieceIndex(PieceType pieceType, PieceColor pieceColor) {
+        if (pieceType == PieceType.Empty) throw new IllegalArgumentException("Empty piece type has no piece index.");
+        return pieceColor.ordinal() * PIECE_KINDS + pieceType.ordinal();
+    }
+    public static PieceType getPieceTypeFromIndex(int piece) {
+        return PIECE_TYPES[piece % PIECE_KINDS];
+    }
+    public static PieceColor getPieceColorFromIndex(int piece) {
+        return PIECE_COLORS[piece / PIECE_KINDS];
+    }
+    public static char getCharFromPieceIndex(int piece) {
+        return getCharFromPiece(getPieceTypeFromIndex(piece), getPieceColorFromIndex(piece));
+    }
+    private String squareToString(int rank, int file) {
+        int piece = this.pieces[Bitboard.squareIndex(rank, file)];
+        return (piece == EMPTY_SQUARE) ? "." : String.valueOf(getCharFromPieceIndex(piece));
+    }
+
+    public static PieceColor getPieceColorFromChar(char c) {
+        return switch (c) {
+            case 'K', 'Q', 'R', 'B', 'N', 'P' -> PieceColor.White;
+            case 'k', 'q', 'r', 'b', 'n', 'p' -> PieceColor.Black;
+            default -> throw new IllegalArgumentException("Method getPieceColorFromChar expects a proper chess character, but is given " + c + ".");
+        };
+    }
+
+    public static PieceType getPieceTypeFromChar(char c) {
+        return switch (c) {
+            case 'K', 'k' -> PieceType.King;
+            case 'Q', 'q' -> PieceType.Queen;
+            case 'R', 'r' -> PieceType.Rook;
+            case 'B', 'b' -> PieceType.Bishop;
+            case 'N', 'n' -> PieceType.Knight;
+            case 'P', 'p' -> PieceType.Pawn;
+            default -> throw new IllegalArgumentException("Method getPieceTypeFromChar expects a proper chess character, but is given " + c + ".");
+        };
+    }
+    public static char getCharFromPiece(PieceType pieceType, PieceColor pieceColor) {
+        return switch (pieceType) {
+            case King -> switch (pieceColor) {
+                case White -> 'K';
+                case Black -> 'k';
+            };
+            case Queen -> switch (pieceColor) {
+                case White -> 'Q';
+                case Black -> 'q';
+            };
+            case Rook -> switch (pieceColor) {
+                case White -> 'R';
+                case Black -> 'r';
+            };
+            case Bishop -> switch (pieceColor) {
+                case White -> 'B';
+                case Black -> 'b';
+            };
+            case Knight -> switch (pieceColor) {
+                case White -> 'N';
+                case Black -> 'n';
+            };
+            case Pawn -> switch (pieceColor) {
+                case White -> 'P';
+                case Black -> 'p';
+            };
+            case Empty -> throw new IllegalStateException("Empty piece got through handling in loop in getFEN().");
+        };
+    }
+    public static String pieceTypeToString(PieceType pieceType) {
+        return switch (pieceType) {
+            case King -> "King";
+            case Queen -> "Queen";
+            case Rook -> "Rook";
+            case Bishop -> "Bishop";
+            case Knight -> "Knight";
+            case Pawn -> "Pawn";
+            case Empty -> "Empty";
+        };
+    }
+
+    public static boolean charIsBetween(char c, int val1, int val2) {
+        return val1 <= c - '1' && c - '1' < val2;
+    }
+
+    public static boolean charIsBetween0And8(char c) {
+        return charIsBetween(c, 0, 8);
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int rank = BOARD_DIMENSION - 1; rank >= 0; rank--) {
+            for (int file = 0; file < BOARD_DIMENSION; file++) {
+                if (file == 0) {
+                    builder.append(rank + 1).append(" - ");
+                }
+                builder.append(squareToString(rank, file)).append(" ");
+            }
+            builder.append("\n");
+        }
+        builder.append("    ");
+        for (int i = 0; i < BOARD_DIMENSION; i++) {
+            builder.append((char)('a' + i)).append(" ");
+        }
+        return builder.toString();
+    }
+    public String boardWithPossibleMovesFor(Position initialPosition) {
+        ArrayList<Move> possibleMoves = findMoves(initialPosition);
+        StringBuilder builder = new StringBuilder();
+        for (int rank = BOARD_DIMENSION - 1; rank >= 0; rank--) {
+            for (int file = 0; file < BOARD_DIMENSION; file++) {
+                if (file == 0) {
+                    builder.append(rank + 1).append(" - ");
+                }
+                Move current = new Move(initialPosition, Position.of(rank, file));
+                if (possibleMoves.contains(current)) {
+                    builder.append("\u001B[31m").append(squareToString(rank, file)).append("\u001B[0m ");
+                }
+                else {
+                    builder.append(squareToString(rank, file)).append(" ");
+                }
+
+            }
+            builder.append("\n");
+        }
+        return getLastPartOfToString(builder);
+    }
+    public String boardWithLatestMove(Move move) {
+        Position initialPosition = move.origin;
+        Position targetPosition = move.target;
+        StringBuilder builder = new StringBuilder();
+        for (int rank = BOARD_DIMENSION - 1; rank >= 0; rank--) {
+            for (int file = 0; file < BOARD_DIMENSION; file++) {
+                if (file == 0) {
+                    builder.append(rank + 1).append(" - ");
+                }
+                //Move current = new Move(initialPosition, new Position(rank, file));
+                Position positionOn = Position.of(rank, file);
+                if (initialPosition.equals(positionOn) || targetPosition.equals(positionOn)) {
+                    builder.append("\u001B[31m").append(squareToString(rank, file)).append("\u001B[0m ");
+                }
+                else {
+                    builder.append(squareToString(rank, file)).append(" ");
+                }
+
+            }
+            builder.append("\n");
+        }
+        return getLastPartOfToString(builder);
+    }
+
+    private String getLastPartOfToString(StringBuilder builder) {
+        builder.append("    ");
+        builder.append("| ".repeat(BOARD_DIMENSION));
+        builder.append("\n    ");
+        for (int i = 0; i < BOARD_DIMENSION; i++) {
+            builder.append((char)('a' + i)).append(" ");
+        }
+        return builder.toString();
+    }
+    public Position locateKing(PieceColor pieceColor) {
+        return Bitboard.positionOf(getKingSquare(pieceColor));
+    }
+    public int getKingSquare(PieceColor pieceColor) {
+        int kingSquare = this.kingSquares[pieceColor.ordinal()];
+        if (kingSquare == Bitboard.NO_SQUARE) throw new IllegalStateException("No king found on board.");
+        return kingSquare;
+    }
+    // The move is played on this board and taken back before returning, so no copy of the board is made.
+    public boolean resultsInCheck(int move, PieceColor sideColor) {
+        int origin = Move.getOrigin(move);
+        int target = Move.getTarget(move);
+        int movingPiece = this.pieces[origin];
+        // A king may not castle out of check, or through a square that is attacked.
+        if (movingPiece != EMPTY_SQUARE && getPieceTypeFromIndex(movingPiece) == PieceType.King && Math.abs(Bitboard.colOf(origin) - Bitboard.colOf(target)) == 2) {
+            if (isInCheck(sideColor) || isSquareAttacked((origin + target) / 2, PieceColor.getOpposite(sideColor))) return true;
+        }
+        makeMove(move);
+        try {
+            return isInCheck(sideColor);
+        }
+        finally {
+            unmakeMove();
+        }
+    }
+    public boolean resultsInCheck(Move move, PieceColor sideColor) {
+        return resultsInCheck(Move.encode(move), sideColor);
+    }
+    public boolean isInCheck(PieceColor sideColor) {
+        return isSquareAttacked(getKingSquare(sideColor), PieceColor.getOpposite(sideColor));
+    }
+
+    /*
+    Method Tested in BoardTest.java
+    Description: This method checks whether any piece of the attacking side attacks the given square, whether or not the square is occupied.
+                 Instead of generating the attacking side's moves, it looks outward from the square: a knight attacks the square if the square
+                 is a knight's move away from it, a rook or queen if the square's rook attacks reach it, and so on.
+    Parameters: position(Position) -> the square to check
+                attackerColor(PieceColor) -> the side whose attacks are checked
+    Returns: true if the square is attacked.
+    Examples: refer to test method.
+     */
+    public boolean isSquareAttacked(Position position, PieceColor attackerColor) {
+        return isSquareAttacked(Bitboard.squareIndex(position), attackerColor);
+    }
+    public boolean isSquareAttacked(int square, PieceColor attackerColor) {
+        int attacker = attackerColor.ordinal() * PIECE_KINDS;
+        // A pawn attacks the square if a pawn of the other color on the square would attack the pawn.
+        if ((AttackTables.PAWN_ATTACKS[attackerColor.ordinal() ^ 1][square] & this.pieceBitboards[attacker + PAWN]) != 0L) return true;
+        if ((AttackTables.KNIGHT_ATTACKS[square] & this.pieceBitboards[attacker + KNIGHT]) != 0L) return true;
+        if ((AttackTables.KING_ATTACKS[square] & this.pieceBitboards[attacker + KING]) != 0L) return true;
+        long queens = this.pieceBitboards[attacker + QUEEN];
+        if ((AttackTables.bishopAttacks(square, this.occupiedBitboard) & (this.pieceBitboards[attacker + BISHOP] | queens)) != 0L) return true;
+        return (AttackTables.rookAttacks(square, this.occupiedBitboard) & (this.pieceBitboards[attacker + ROOK] | queens)) != 0L;
+    }
+    public boolean resultsInCheck(Position piecePosition, Position targetPosition, PieceColor sideColor) {
+        return resultsInCheck(new Move(piecePosition, targetPosition), sideColor);
+    }
+    public boolean resultsInCheck(String piecePosition, String targetPosition, PieceColor sideColor) {
+        return resultsInCheck(Position.chessPositionToPosition(piecePosition), Position.chessPositionToPosition(targetPosition), sideColor);
+    }
+    public void makeMove(Move move) {
+        makeMove(Move.encode(move));
+    }
+    public void makeMove(int move) {
+        int origin = Move.getOrigin(move);
+        int target = Move.getTarget(move);
+        int originRow = Bitboard.rowOf(origin), originCol = Bitboard.colOf(origin);
+        int targetRow = Bitboard.rowOf(target), targetCol = Bitboard.colOf(target);
+        PieceType promotion = Move.getPromotion(move);
+        int movingPiece = this.pieces[origin];
+        int capturedPiece = this.pieces[target];
+        if (movingPiece == EMPTY_SQUARE) throw new IllegalStateException("Piece given to makeMove method has no color.");
+        if (capturedPiece != EMPTY_SQUARE && capturedPiece / PIECE_KINDS == movingPiece / PIECE_KINDS) throw new IllegalStateException("Move given to makeMove method is invalid, as it involves a side capturing its own piece.");
+        PieceColor moveColor = getPieceColorFromIndex(movingPiece);
+        if (moveColor != toMove) throw new IllegalArgumentException("Move for " + moveColor + " given, but it is " + toMove + "'s turn.");
+        PieceType movingType = getPieceTypeFromIndex(movingPiece);
+        boolean isPawnMove = movingType == PieceType.Pawn;
+        boolean isDoublePawnMove = isPawnMove && Math.abs(originRow - targetRow) == 2;
+        boolean isEnPassant = isPawnMove && target == enPassantTargetSquare;
+        int capturedSquare = target;
+        if (isEnPassant) {
+            capturedSquare = Bitboard.squareIndex(originRow, targetCol);
+            capturedPiece = this.pieces[capturedSquare];
+        }
+        pushUndoRecord(origin, target, movingPiece, capturedPiece, isEnPassant);
+        // The en passant part of the key depends on the pawns around the target square, so it is taken out before anything moves.
+        this.hashKey ^= enPassantKey();
+
+        if (capturedPiece == EMPTY_SQUARE && !isPawnMove) {
+            this.incrementHalfMoveClock();
+        }
+        else {
+            this.resetHalfMoveClock();
+        }
+        int keptRights = CASTLING_RIGHTS_KEPT[origin] & CASTLING_RIGHTS_KEPT[target];
+        // If a king moves, then all castling rights for its side are revoked.
+        if (movingType == PieceType.King) {
+            keptRights &= (moveColor == PieceColor.White) ? ~(WHITE_KINGSIDE | WHITE_QUEENSIDE) : ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        }
+        setCastlingMask(this.castlingMask & keptRights);
+        if (isDoublePawnMove) {
+            if (originCol != targetCol) throw new IllegalStateException("Invalid move: Pawn move switches columns.");
+            this.enPassantTargetSquare = Bitboard.squareIndex((originRow + targetRow) / 2, originCol);
+        }
+        else {
+            this.enPassantTargetSquare = Bitboard.NO_SQUARE;
+        }
+
+        if (capturedPiece != EMPTY_SQUARE) {
+            removePiece(capturedSquare);
+        }
+        removePiece(origin);
+        putPiece(promotion == PieceType.Empty ? movingPiece : getPieceIndex(promotion, moveColor), target);
+        // Castling is given as the king's move, so the rook is moved alongside it here.
+        if (movingType == PieceType.King && Math.abs(originCol - targetCol) == 2) {
+            moveCastlingRook(origin, target, false);
+        }
+        this.toMove = PieceColor.getOpposite(moveColor);
+        this.hashKey ^= Zobrist.BLACK_TO_MOVE ^ enPassantKey();
+        if (toMove == PieceColor.White) {
+            this.incrementFullMoveNumber();
+        }
+    }
+
+    /*
+    Method Tested in BoardTest.java
+    Description: This method takes back the last move made with makeMove, restoring the captured piece, castling rights, en passant target square, half move clock and full move number.
+    Examples: refer to test method.
+     */
+    public void unmakeMove() {
+        if (undoCount == 0) throw new IllegalStateException("No move to unmake.");
+        long record = undoStack[--undoCount];
+        int origin = (int) (record & 0x3F);
+        int target = (int) ((record >>> 6) & 0x3F);
+        int movingPiece = (int) ((record >>> 12) & 0xF);
+        int capturedPiece = (int) ((record >>> 16) & 0xF) - 1;
+        boolean isEnPassant = ((record >>> 20) & 1) != 0;
+
+        this.toMove = PieceColor.getOpposite(toMove);
+        removePiece(target);
+        putPiece(movingPiece, origin);
+        if (capturedPiece != EMPTY_SQUARE) {
+            putPiece(capturedPiece, isEnPassant ? Bitboard.squareIndex(Bitboard.rowOf(origin), Bitboard.colOf(target)) : target);
+        }
+        if (getPieceTypeFromIndex(movingPiece) == PieceType.King && Math.abs(Bitboard.colOf(origin) - Bitboard.colOf(target)) == 2) {
+            moveCastlingRook(origin, target, true);
+        }
+        setCastlingMask((int) ((record >>> 21) & 0xF));
+        this.enPassantTargetSquare = (int) ((record >>> 25) & 0x7F) - 1;
+        this.halfMoveClock = (int) (record >>> 32);
+        if (toMove == PieceColor.Black) this.fullMoveNumber--;
+        this.hashKey = keyHistory[undoCount];
+    }
+    public int getPlyCount() {
+        return undoCount;
+    }
+    // True if the position occurred before in the moves made on this board. Only positions since the last capture or pawn move can repeat,
+    // and only every other one has the same side to move.
+    public boolean isRepetition() {
+        int earliest = Math.max(0, undoCount - halfMoveClock);
+        for (int ply = undoCount - 2; ply >= earliest; ply -= 2) {
+            if (keyHistory[ply] == hashKey) return true;
+        }
+        return false;
+    }
+
+    // Packs everything makeMove changes that cannot be worked out from the move itself into one long:
+    // bits 0-5 origin, 6-11 target, 12-15 moving piece, 16-19 captured piece + 1, 20 en passant flag,
+    // 21-24 castling rights, 25-31 en passant target square + 1, 32-63 half move clock. The full move number is not kept, since it can
+    // be any int and makeMove only ever adds one to it, after a move by black.
+    private void pushUndoRecord(int origin, int target, int movingPiece, int capturedPiece, boolean isEnPassant) {
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoStack.length * 2);
+            keyHistory = Arrays.copyOf(keyHistory, keyHistory.length * 2);
+        }
+        keyHistory[undoCount] = hashKey;
+        undoStack[undoCount++] = origin
+                | ((long) target << 6)
+                | ((long) movingPiece << 12)
+                | ((long) (capturedPiece + 1) << 16)
+                | ((isEnPassant ? 1L : 0L) << 20)
+                | ((long) castlingMask << 21)
+                | ((long) (enPassantTargetSquare + 1) << 25)
+                | ((long) halfMoveClock << 32);
+    }
+    private long enPassantKey() {
+        return Zobrist.enPassantKey(this.enPassantTargetSquare, this.toMove, this.pieceBitboards[toMove.ordinal() * PIECE_KINDS + PAWN]);
+    }
+    private void moveCastlingRook(int kingOrigin, int kingTarget, boolean undo) {
+        int row = Bitboard.rowOf(kingOrigin);
+        boolean kingside = kingTarget > kingOrigin;
+        int rookHome = Bitboard.squareIndex(row, kingside ? BOARD_DIMENSION - 1 : 0);
+        int rookCastled = Bitboard.squareIndex(row, kingside ? 5 : 3);
+        int from = undo ? rookCastled : rookHome;
+        int to = undo ? rookHome : rookCastled;
+        int rook = this.pieces[from];
+        if (rook == EMPTY_SQUARE || getPieceTypeFromIndex(rook) != PieceType.Rook) throw new IllegalStateException("Castling move given, but there is no rook on " + Position.positionToChessPosition(Bitboard.positionOf(from)) + ".");
+        removePiece(from);
+        putPiece(rook, to);
+    }
+
+    // Note that this is before the board is updated, so the piece will still be in its origin
+    public void updateCastlingRightsIfApplicable(Square originSquare) {
+        Position originSquarePosition = originSquare.getPosition();
+        // If a king moves, then all castling rights are revoked.
+        if (originSquare.getPieceType() == PieceType.King) {
+            if (originSquare.getPieceColor().orElseThrow() == PieceColor.White) {
+                removeCastlingRights("KQ");
+            }
+            else {
+                removeCastlingRights("kq");
+            }
+        }
+        // If a rook moves, then the castling right for that respective side of castle is revoked.
+        else if (originSquare.getPieceType() == PieceType.Rook) {
+            if (originSquarePosition.equals(Position.of("a1"))) {
+                removeCastlingRights("Q");
+            }
+            else if (originSquarePosition.equals(Position.of("h1"))) {
+                removeCastlingRights("K");
+            }
+            else if (originSquarePosition.equals(Position.of("a8"))) {
+                removeCastlingRights("q");
+            }
+            else if (originSquarePosition.equals(Position.of("h8"))) {
+                removeCastlingRights("k");
+            }
+        }
+    }
+    public void removeCastlingRights(String toRemove) {
+        setCastlingMask(this.castlingMask & ~parseCastlingRights(toRemove));
+    }
+    public int getCastlingMask() {
+        return this.castlingMask;
+    }
+    private void setCastlingMask(int castlingMask) {
+        this.hashKey ^= Zobrist.CASTLING[this.castlingMask] ^ Zobrist.CASTLING[castlingMask];
+        this.castlingMask = castlingMask;
+        this.castlingRights = CASTLING_RIGHTS_BY_MASK.get(castlingMask);
+    }
+    // Converts castling rights in FEN form, e.g. "KQk" or "-", into the bitmask form.
+    public static int parseCastlingRights(String castlingRights) {
+        int mask = 0;
+        for (int i = 0; i < castlingRights.length(); i++) {
+            int index = CASTLING_CHARACTERS.indexOf(castlingRights.charAt(i));
+            if (index >= 0) {
+                mask |= 1 << index;
+            }
+        }
+        return mask;
+    }
+    private static List<Optional<String>> buildCastlingRightsByMask() {
+        List<Optional<String>> castlingRightsByMask = new ArrayList<>();
+        for (int mask = 0; mask < 16; mask++) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < CASTLING_CHARACTERS.length(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    builder.append(CASTLING_CHARACTERS.charAt(i));
+                }
+            }
+            castlingRightsByMask.add(builder.isEmpty() ? Optional.empty() : Optional.of(builder.toString()));
+        }
+        return castlingRightsByMask;
+    }
+    private static int[] buildPieceByCharacter() {
+        int[] pieceByCharacter = new int[128];
+        Arrays.fill(pieceByCharacter, EMPTY_SQUARE);
+        for (int piece = 0; piece < PIECE_KINDS * 2; piece++) {
+            pieceByCharacter[getCharFromPieceIndex(piece)] = piece;
+        }
+        return pieceByCharacter;
+    }
+    private static byte[] buildCharacterByPiece() {
+        byte[] characterByPiece = new byte[PIECE_KINDS * 2];
+        for (int piece = 0; piece < PIECE_KINDS * 2; piece++) {
+            characterByPiece[piece] = (byte) getCharFromPieceIndex(piece);
+        }
+        return characterByPiece;
+    }
+    private static int[] buildCastlingRightsKept() {
+        int[] kept = new int[Bitboard.SQUARE_COUNT];
+        Arrays.fill(kept, WHITE_KINGSIDE | WHITE_QUEENSIDE | BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        kept[Bitboard.squareIndex(0, 0)] &= ~WHITE_QUEENSIDE;
+        kept[Bitboard.squareIndex(0, 7)] &= ~WHITE_KINGSIDE;
+        kept[Bitboard.squareIndex(0, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        kept[Bitboard.squareIndex(7, 0)] &= ~BLACK_QUEENSIDE;
+        kept[Bitboard.squareIndex(7, 7)] &= ~BLACK_KINGSIDE;
+        kept[Bitboard.squareIndex(7, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        return kept;
+    }
+
+    public static boolean isCapture(Square pieceSquare, Square targetSquare) {
+        Optional<PieceColor> pieceColor = pieceSquare.getPieceColor();
+        if (pieceColor.isEmpty()) throw new IllegalStateException("Piece given to makeMove method has no color.");
+        Optional<PieceColor> targetColor = targetSquare.getPieceColor();
+        if (targetColor.isPresent() && targetColor.get() == pieceColor.get()) throw new IllegalStateException("Move given to makeMove method is invalid, as it involves a side capturing its own piece.");
+        return targetColor.isPresent() && targetColor.get() == PieceColor.getOpposite(pieceColor.get());
+    }
+
+    public void makeMove(Position piecePosition, Position targetPosition) {
+        makeMove(new Move(piecePosition, targetPosition));
+    }
+    public void makeMove(String piecePosition, String targetPosition) {
+        makeMove(Position.chessPositionToPosition(piecePosition), Position.chessPositionToPosition(targetPosition));
+    }
+
+    public ArrayList<Position> getPositionsOfAllPieces(PieceColor sideColor) {
+        ArrayList<Position> positionsOfAllPieces = new ArrayList<>();
+        for (long remaining = getColorBitboard(sideColor); remaining != 0L; remaining = Bitboard.removeLowestSquare(remaining)) {
+            positionsOfAllPieces.add(Bitboard.positionOf(Bitboard.lowestSquare(remaining)));
+        }
+        return positionsOfAllPieces;
+    }
+    public HashSet<Move> getMovesOfAllPieces(PieceColor sideColor) {
+        MoveList moveList = new MoveList();
+        generateMoves(sideColor, moveList);
+        return new HashSet<>(moveList.toMoves());
+    }
+    public ArrayList<Move> findMoves(Position pos) {
+        MoveList moveList = new MoveList();
+        generateMoves(Bitboard.squareIndex(pos), moveList);
+        return moveList.toMoves();
+    }
+    public ArrayList<Move> findMoves(String chessPosition) {
+        return findMoves(Position.chessPositionToPosition(chessPosition));
+    }
+
+    /*
+    Method Tested in BoardTest.java
+    Description: This method adds the pseudo-legal moves of every piece of the given side to a move list, packed as ints (see Move.encode).
+                 It does not allocate, so callers can reuse the same MoveList for every position.
+    Parameters: sideColor(PieceColor) -> the side whose moves are generated
+                moveList(MoveList) -> the list the moves are added to, which is not cleared first
+    Examples: refer to test method.
+     */
+    public void generateMoves(PieceColor sideColor, MoveList moveList) {
+        for (long remaining = getColorBitboard(sideColor); remaining != 0L; remaining = Bitboard.removeLowestSquare(remaining)) {
+            generateMoves(Bitboard.lowestSquare(remaining), moveList);
+        }
+    }
+    public void generateMoves(int square, MoveList moveList) {
+        int piece = this.pieces[square];
+        if (piece == EMPTY_SQUARE) throw new IllegalArgumentException("Empty position given to findMoves method, which requires an existent piece.");
+        PieceColor pieceColor = getPieceColorFromIndex(piece);
+        long ownPieces = this.colorBitboards[pieceColor.ordinal()];
+        switch (getPieceTypeFromIndex(piece)) {
+            case King -> {
+                addMoves(square, AttackTables.KING_ATTACKS[square] & ~ownPieces, moveList);
+                generateCastlingMoves(square, pieceColor, false, moveList);
+            }
+            case Knight -> addMoves(square, AttackTables.KNIGHT_ATTACKS[square] & ~ownPieces, moveList);
+            case Pawn -> {
+                generatePawnMoves(square, pieceColor, ~0L, moveList);
+                if (enPassantTargetSquare != Bitboard.NO_SQUARE && Bitboard.contains(AttackTables.PAWN_ATTACKS[pieceColor.ordinal()][square], enPassantTargetSquare)) {
+                    moveList.add(Move.encode(square, enPassantTargetSquare, PieceType.Empty, Move.CAPTURE | Move.EN_PASSANT));
+                }
+            }
+            case Queen -> addMoves(square, AttackTables.queenAttacks(square, this.occupiedBitboard) & ~ownPieces, moveList);
+            case Rook -> addMoves(square, AttackTables.rookAttacks(square, this.occupiedBitboard) & ~ownPieces, moveList);
+            case Bishop -> addMoves(square, AttackTables.bishopAttacks(square, this.occupiedBitboard) & ~ownPieces, moveList);
+        }
+    }
+
+    /*
+    Method Tested in BoardTest.java
+    Description: This method adds only the legal moves of the given side to a move list, so no move has to be made and taken back to
+                 find out whether it leaves the king in check. The pieces giving check and the pieces pinned to the king are found once:
+                 in double check only the king may move, in single check every other piece must capture the checker or block it, and a
+                 pinned piece may only move along the line between its king and the pinning piece. King moves are tested with the king
+                 taken off the board, so it cannot step back along the line of a slider checking it. En passant is tested by removing
+                 both pawns, which catches the capture that uncovers a rook or queen on the king's row.
+    Parameters: sideColor(PieceColor) -> the side whose moves are generated; en passant is only generated for the side to move
+                moveList(MoveList) -> the list the moves are added to, which is not cleared first
+    Examples: refer to test method.
+     */
+    public void generateLegalMoves(PieceColor sideColor, MoveList moveList) {
+        generateLegalMoves(sideColor, moveList, MoveKind.All, ~0L);
+    }
+    public void generateLegalMoves(PieceColor sideColor, MoveList moveList, MoveKind kind) {
+        generateLegalMoves(sideColor, moveList, kind, ~0L);
+    }
+
+    /*
+    Method Tested in BoardTest.java
+    Description: This method adds the legal moves of the given kind, of the pieces on the given squares, to a move list. Generating the
+                 noisy and the quiet moves separately gives the same moves as generating all of them, so a search can put off
+                 generating quiet moves until it needs them, and can check a single move by generating only the moves of its piece.
+    Parameters: sideColor(PieceColor) -> the side whose moves are generated; en passant is only generated for the side to move
+                moveList(MoveList) -> the list the moves are added to, which is not cleared first
+                kind(MoveKind) -> all moves, only captures and promotions, or only the other moves
+                originMask(long) -> the squares of the pieces whose moves are generated
+    Examples: refer to test method.
+     */
+    public void generateLegalMoves(PieceColor sideColor, MoveList moveList, MoveKind kind, long originMask) {
+        int side = sideColor.ordinal();
+        PieceColor opponentColor = PieceColor.getOpposite(sideColor);
+        int kingSquare = getKingSquare(sideColor);
+        long ownPieces = this.colorBitboards[side];
+        long opponentPieces = this.colorBitboards[opponentColor.ordinal()];
+        long checkers = attackersTo(kingSquare, opponentColor, this.occupiedBitboard);
+        // Pieces other than pawns are noisy exactly when they capture; pawns also when they reach the last row.
+        long promotionRow = (sideColor == PieceColor.White) ? WHITE_PROMOTION_ROW : BLACK_PROMOTION_ROW;
+        long targetMask = (kind == MoveKind.All) ? ~0L : (kind == MoveKind.Noisy) ? opponentPieces : ~opponentPieces;
+        long pawnTargetMask = (kind == MoveKind.All) ? ~0L : (kind == MoveKind.Noisy) ? opponentPieces | promotionRow : ~(opponentPieces | promotionRow);
+
+        long occupiedWithoutKing = this.occupiedBitboard ^ Bitboard.squareMask(kingSquare);
+        long kingTargets = Bitboard.contains(originMask, kingSquare) ? AttackTables.KING_ATTACKS[kingSquare] & ~ownPieces & targetMask : 0L;
+        for (long targets = kingTargets; targets != 0L; targets = Bitboard.removeLowestSquare(targets)) {
+            int target = Bitboard.lowestSquare(targets);
+            if (attackersTo(target, opponentColor, occupiedWithoutKing) == 0L) {
+                moveList.add(Move.encode(kingSquare, target, PieceType.Empty, Bitboard.contains(opponentPieces, target) ? Move.CAPTURE : 0));
+            }
+        }
+        if (Long.bitCount(checkers) > 1) return;
+        // Every move other than a king move has to land on one of these squares: anywhere when not in check, otherwise the checker or a square blocking it.
+        long checkMask = (checkers == 0L) ? ~0L : checkers | AttackTables.BETWEEN[kingSquare][Bitboard.lowestSquare(checkers)];
+        long pinned = pinnedPieces(kingSquare, sideColor);
+        if (checkers == 0L && kind != MoveKind.Noisy && Bitboard.contains(originMask, kingSquare)) {
+            generateCastlingMoves(kingSquare, sideColor, true, moveList);
+        }
+
+        int first = side * PIECE_KINDS;
+        long pieceTargetMask = ~ownPieces & checkMask & targetMask;
+        for (long remaining = this.pieceBitboards[first + KNIGHT] & ~pinned & originMask; remaining != 0L; remaining = Bitboard.removeLowestSquare(remaining)) {
+            int origin = Bitboard.lowestSquare(remaining);
+            addMoves(origin, AttackTables.KNIGHT_ATTACKS[origin] & pieceTargetMask, moveList);
+        }
+        long queens = this.pieceBitboards[first + QUEEN];
+        for (long remaining = (this.pieceBitboards[first + BISHOP] | queens) & originMask; remaining != 0L; remaining = Bitboard.removeLowestSquare(remaining)) {
+            int origin = Bitboard.lowestSquare(remaining);
+            addMoves(origin, AttackTables.bishopAttacks(origin, this.occupiedBitboard) & pieceTargetMask & pinMask(origin, kingSquare, pinned), moveList);
+        }
+        for (long remaining = (this.pieceBitboards[first + ROOK] | queens) & originMask; remaining != 0L; remaining = Bitboard.removeLowestSquare(remaining)) {
+            int origin = Bitboard.lowestSquare(remaining);
+            addMoves(origin, AttackTables.rookAttacks(origin, this.occupiedBitboard) & pieceTargetMask & pinMask(origin, kingSquare, pinned), moveList);
+        }
+        boolean enPassantPossible = enPassantTargetSquare != Bitboard.NO_SQUARE && sideColor == toMove && kind != MoveKind.Quiet;
+        for (long remaining = this.pieceBitboards[first + PAWN] & originMask; remaining != 0L; remaining = Bitboard.removeLowestSquare(remaining)) {
+            int origin = Bitboard.lowestSquare(remaining);
+            generatePawnMoves(origin, sideColor, checkMask & pinMask(origin, kingSquare, pinned) & pawnTargetMask, moveList);
+            if (enPassantPossible && Bitboard.contains(AttackTables.PAWN_ATTACKS[side][origin], enPassantTargetSquare)
+                    && isLegalEnPassant(origin, kingSquare, opponentColor)) {
+                moveList.add(Move.encode(origin, enPassantTargetSquare, PieceType.Empty, Move.CAPTURE | Move.EN_PASSANT));
+            }
+        }
+    }
+    public ArrayList<Move> getLegalMoves(PieceColor sideColor) {
+        MoveList moveList = new MoveList();
+        generateLegalMoves(sideColor, moveList);
+        return moveList.toMoves();
+    }
+
+    /*
+    Method Tested in BoardTest.java
+    Description: This method works out the material the side making the move wins or loses on the target square, if both sides then keep
+                 capturing there with their least valuable piece and each may stop when capturing no longer pays. Sliders lined up behind
+                 a capturing piece join in once it has left. Pins and checks elsewhere on the board are not considered, and a pawn
+                 recapturing on the last row counts as a pawn.
+    Parameters: move(int) -> the move, packed as in Move.encode; it does not have to be a capture, and its flags are not needed
+    Returns: the material gained in centipawns (see SEE_VALUES), which is negative if the move loses material.
+    Examples: refer to test method.
+     */
+    public int see(int move) {
+        int origin = Move.getOrigin(move), target = Move.getTarget(move);
+        int movingType = this.pieces[origin] % PIECE_KINDS;
+        long occupied = this.occupiedBitboard ^ Bitboard.squareMask(origin);
+        int[] gains = this.seeGains;
+        if (movingType == PAWN && target == this.enPassantTargetSquare && Bitboard.colOf(origin) != Bitboard.colOf(target)) {
+            gains[0] = SEE_VALUES[PAWN];
+            occupied ^= Bitboard.squareMask(Bitboard.squareIndex(Bitboard.rowOf(origin), Bitboard.colOf(target)));
+        }
+        else {
+            gains[0] = (this.pieces[target] == EMPTY_SQUARE) ? 0 : SEE_VALUES[this.pieces[target] % PIECE_KINDS];
+        }
+        // The piece standing on the target square, which the next capture takes.
+        int onTargetValue = SEE_VALUES[movingType];
+        PieceType promotion = Move.getPromotion(move);
+        if (promotion != PieceType.Empty) {
+            gains[0] += SEE_VALUES[promotion.ordinal()] - SEE_VALUES[PAWN];
+            onTargetValue = SEE_VALUES[promotion.ordinal()];
+        }
+        int side = this.pieces[origin] / PIECE_KINDS;
+        int depth = 0;
+        while (depth < MAX_EXCHANGE_LENGTH - 1) {
+            side ^= 1;
+            long attackers = attackersTo(target, PIECE_COLORS[side], occupied) & occupied;
+            if (attackers == 0L) break;
+            int attackerType = KING;
+            long attacker = 0L;
+            for (int type = PAWN; type >= QUEEN; type--) {
+                attacker = attackers & this.pieceBitboards[side * PIECE_KINDS + type];
+                if (attacker != 0L) {
+                    attackerType = type;
+                    break;
+                }
+            }
+            // The king may only capture last, when the other side has nothing left to take it with.
+            if (attacker == 0L) {
+                if ((attackersTo(target, PIECE_COLORS[side ^ 1], occupied) & occupied) != 0L) break;
+                attacker = attackers;
+            }
+            depth++;
+            // What the side capturing now would have if the other side then stopped.
+            gains[depth] = onTargetValue - gains[depth - 1];
+            // The side capturing now is behind whether it captures or not, so the exchange is decided before it: it ends here, and the
+            // gain of this capture, which is only an upper bound while the other side may still recapture, is left out.
+            if (Math.max(-gains[depth - 1], gains[depth]) < 0) {
+                depth--;
+                break;
+            }
+            onTargetValue = SEE_VALUES[attackerType];
+            occupied ^= Long.lowestOneBit(attacker);
+        }
+        // Each side stops when carrying on is worse than stopping, from the last capture back to the first.
+        while (depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+    public int see(Move move) {
+        return see(Move.encode(move));
+    }
+    // The squares of every piece of the attacking side that attacks the given square, with sliding attacks blocked by the given occupancy.
+    private long attackersTo(int square, PieceColor attackerColor, long occupied) {
+        int attacker = attackerColor.ordinal() * PIECE_KINDS;
+        long queens = this.pieceBitboards[attacker + QUEEN];
+        return (AttackTables.PAWN_ATTACKS[attackerColor.ordinal() ^ 1][square] & this.pieceBitboards[attacker + PAWN])
+                | (AttackTables.KNIGHT_ATTACKS[square] & this.pieceBitboards[attacker + KNIGHT])
+                | (AttackTables.KING_ATTACKS[square] & this.pieceBitboards[attacker + KING])
+                | (AttackTables.bishopAttacks(square, occupied) & (this.pieceBitboards[attacker + BISHOP] | queens))
+                | (AttackTables.rookAttacks(square, occupied) & (this.pieceBitboards[attacker + ROOK] | queens));
+    }
+    // A piece is pinned when it is the only piece between its king and an opponent's slider that would otherwise attack the king.
+    private long pinnedPieces(int kingSquare, PieceColor sideColor) {
+        int opponent = (sideColor.ordinal() ^ 1) * PIECE_KINDS;
+        long opponentPieces = this.colorBitboards[sideColor.ordinal() ^ 1];
+        long queens = this.pieceBitboards[opponent + QUEEN];
+        // Looking through the side's own pieces finds every slider that lines up with the king.
+        long snipers = (AttackTables.rookAttacks(kingSquare, opponentPieces) & (this.pieceBitboards[opponent + ROOK] | queens))
+                | (AttackTables.bishopAttacks(kingSquare, opponentPieces) & (this.pieceBitboards[opponent + BISHOP] | queens));
+        long pinned = 0L;
+        for (; snipers != 0L; snipers = Bitboard.removeLowestSquare(snipers)) {
+            long blockers = AttackTables.BETWEEN[kingSquare][Bitboard.lowestSquare(snipers)] & this.occupiedBitboard;
+            if (Long.bitCount(blockers) == 1) pinned |= blockers & this.colorBitboards[sideColor.ordinal()];
+        }
+        return pinned;
+    }
+    private static long pinMask(int square, int kingSquare, long pinned) {
+        return Bitboard.contains(pinned, square) ? AttackTables.LINE[kingSquare][square] : ~0L;
+    }
+    // En passant removes two pawns from the same row, which no pin mask describes, so the position after the capture is checked directly.
+    private boolean isLegalEnPassant(int origin, int kingSquare, PieceColor opponentColor) {
+        int capturedSquare = Bitboard.squareIndex(Bitboard.rowOf(origin), Bitboard.colOf(enPassantTargetSquare));
+        long occupied = (this.occupiedBitboard ^ Bitboard.squareMask(origin) ^ Bitboard.squareMask(capturedSquare)) | Bitboard.squareMask(enPassantTargetSquare);
+        return (attackersTo(kingSquare, opponentColor, occupied) & ~Bitboard.squareMask(capturedSquare)) == 0L;
+    }
+    // Adds a move from the origin to every square in targets, which must already exclude squares occupied by the moving side.
+    private void addMoves(int origin, long targets, MoveList moveList) {
+        for (long remaining = targets; remaining != 0L; remaining = Bitboard.removeLowestSquare(remaining)) {
+            int target = Bitboard.lowestSquare(remaining);
+            moveList.add(Move.encode(origin, target, PieceType.Empty, Bitboard.contains(this.occupiedBitboard, target) ? Move.CAPTURE : 0));
+        }
+    }
+    // Castling moves are added when the side still has the right and the squares between king and rook are empty.
+    // Unless checkAttacks is set, whether the king passes through check is left to resultsInCheck(), like every other check condition;
+    // with it set, the caller has made sure the king is not in check already.
+    private void generateCastlingMoves(int kingSquare, PieceColor kingColor, boolean checkAttacks, MoveList moveList) {
+        int homeRow = (kingColor == PieceColor.White) ? 0 : BOARD_DIMENSION - 1;
+        if (kingSquare != Bitboard.squareIndex(homeRow, 4)) return;
+        int kingsideRight = (kingColor == PieceColor.White) ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+        int queensideRight = (kingColor == PieceColor.White) ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+        int rook = getPieceIndex(PieceType.Rook, kingColor);
+        if ((castlingMask & kingsideRight) != 0 && this.pieces[Bitboard.squareIndex(homeRow, 7)] == rook
+                && isEmpty(homeRow, 5) && isEmpty(homeRow, 6)
+                && (!checkAttacks || isSafeForKing(homeRow, 5, kingColor) && isSafeForKing(homeRow, 6, kingColor))) {
+            moveList.add(Move.encode(kingSquare, Bitboard.squareIndex(homeRow, 6), PieceType.Empty, Move.CASTLING));
+        }
+        if ((castlingMask & queensideRight) != 0 && this.pieces[Bitboard.squareIndex(homeRow, 0)] == rook
+                && isEmpty(homeRow, 3) && isEmpty(homeRow, 2) && isEmpty(homeRow, 1)
+                && (!checkAttacks || isSafeForKing(homeRow, 3, kingColor) && isSafeForKing(homeRow, 2, kingColor))) {
+            moveList.add(Move.encode(kingSquare, Bitboard.squareIndex(homeRow, 2), PieceType.Empty, Move.CASTLING));
+        }
+    }
+    // Only moves onto a square in targetMask are added; en passant is left to the caller.
+    private void generatePawnMoves(int origin, PieceColor thisPieceColor, long targetMask, MoveList moveList) {
+        int direction = (thisPieceColor == PieceColor.White) ? BOARD_DIMENSION : -BOARD_DIMENSION;
+        int startingRow = (thisPieceColor == PieceColor.White) ? 1 : BOARD_DIMENSION - 2;
+        int forward = origin + direction;
+        if (forward < 0 || forward >= Bitboard.SQUARE_COUNT) return;
+        // Pawns move forward onto empty squares only, and may move two squares from their starting row if both are empty.
+        if (!Bitboard.contains(this.occupiedBitboard, forward)) {
+            if (Bitboard.contains(targetMask, forward)) addPawnMove(origin, forward, 0, moveList);
+            if (Bitboard.rowOf(origin) == startingRow && !Bitboard.contains(this.occupiedBitboard, forward + direction) && Bitboard.contains(targetMask, forward + direction)) {
+                moveList.add(Move.encode(origin, forward + direction, PieceType.Empty, Move.DOUBLE_PAWN_PUSH));
+            }
+        }
+        // Pawns capture diagonally forward onto an opponent's piece.
+        long attacks = AttackTables.PAWN_ATTACKS[thisPieceColor.ordinal()][origin];
+        for (long captures = attacks & getColorBitboard(PieceColor.getOpposite(thisPieceColor)) & targetMask; captures != 0L; captures = Bitboard.removeLowestSquare(captures)) {
+            addPawnMove(origin, Bitboard.lowestSquare(captures), Move.CAPTURE, moveList);
+        }
+    }
+    // A pawn reaching the last row has to promote, so one move is added for each piece it can promote to.
+    private void addPawnMove(int origin, int target, int flags, MoveList moveList) {
+        int targetRow = Bitboard.rowOf(target);
+        if (targetRow == 0 || targetRow == BOARD_DIMENSION - 1) {
+            for (PieceType promotion : PROMOTION_TYPES) {
+                moveList.add(Move.encode(origin, target, promotion, flags));
+            }
+        }
+        else {
+            moveList.add(Move.encode(origin, target, PieceType.Empty, flags));
+        }
+    }
+    private boolean isSafeForKing(int row, int col, PieceColor kingColor) {
+        return !isSquareAttacked(Bitboard.squareIndex(row, col), PieceColor.getOpposite(kingColor));
+    }
+    private boolean isEmpty(int row, int col) {
+        return !Bitboard.contains(this.occupiedBitboard, Bitboard.squareIndex(row, col));
+    }
+
+    public String boardWithPossibleMovesFor(String chessPosition) {
+        return boardWithPossibleMovesFor(Position.chessPositionToPosition(chessPosition));
+    }
+
+    public static boolean contains(HashSet<Position> list, Position value) {
+        return list.contains(value);
+    }
+    public static boolean contains(char[] arr, char value) {
+        for (char c : arr) {
+            if (c == value) return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,701 @@
+package chess;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class BoardTest {
+
+    @Test
+    public void testSquareInitialization() {
+        Board board = new Board();
+        // Test that the board reads the FEN correctly by checking the piece types of certain squares on the starting board.
+        assertEquals(PieceType.Pawn, board.getBoard()[1][0].getPieceType());
+        assertEquals(PieceType.Rook, board.getBoard()[7][0].getPieceType());
+        assertEquals(PieceType.Empty, board.getBoard()[5][4].getPieceType());
+        // Test that the board reads the FEN correctly by checking the piece colors of certain squares on the starting board.
+        assertTrue(board.getBoard()[0][4].getPieceColor().isPresent());
+        assertEquals(PieceColor.White, board.getBoard()[0][4].getPieceColor().get());
+        assertTrue(board.getBoard()[6][7].getPieceColor().isPresent());
+        assertEquals(PieceColor.Black, board.getBoard()[6][7].getPieceColor().get());
+        assertTrue(board.getBoard()[3][4].getPieceColor().isEmpty());
+    }
+    @Test
+    public void testReadFEN() {
+        Board board = new Board("4k3/8/8/8/8/8/8/4K3 b - - 5 40");
+        long hashKey = board.hashKey();
+        // Test that the placement is read into squares, and that the board it is read by is left as it was.
+        Square[][] squares = board.readFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR");
+        assertEquals(PieceType.Pawn, squares[3][4].getPieceType());
+        assertEquals(PieceColor.White, squares[3][4].getPieceColor().get());
+        assertEquals(PieceType.Empty, squares[1][4].getPieceType());
+        assertEquals(PieceType.Knight, squares[7][6].getPieceType());
+        assertEquals(PieceColor.Black, squares[7][6].getPieceColor().get());
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 5 40", board.getFEN());
+        assertEquals(hashKey, board.hashKey());
+        assertThrows(IllegalArgumentException.class, () -> board.readFEN("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP"));
+    }
+    @Test
+    public void testSwitchToMove() {
+        Board board = new Board();
+        assertEquals(board.getToMove(), PieceColor.White);
+        board.switchToMove();
+        assertEquals(board.getToMove(), PieceColor.Black);
+        board.switchToMove();
+        assertEquals(board.getToMove(), PieceColor.White);
+    }
+    @Test
+    public void testIncrements() {
+        Board board = new Board();
+        assertEquals(0, board.halfMoveClock);
+        assertEquals(1, board.fullMoveNumber);
+        board.incrementHalfMoveClock();
+        assertEquals(1, board.halfMoveClock);
+        board.incrementFullMoveNumber();
+        assertEquals(2, board.fullMoveNumber);
+        board.resetHalfMoveClock();
+        assertEquals(0, board.halfMoveClock);
+        board.incrementFullMoveNumber();
+        assertEquals(3, board.fullMoveNumber);
+    }
+    @Test
+    public void testInvalidFENs() {
+        String[] FENsToTest = {
+                // Test first FEN argument - position
+                "rnbqkbknr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/9/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/4p4/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+
+                // Test second FEN argument - whose move it is
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR k KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR hello KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR 136 KQkq - 0 1",
+
+                // Test third FEN argument - castling rights
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w kqKQ - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w kK - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w awesome - 0 1",
+
+                // Test fourth FEN argument - en passant target square
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq hello 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq z5 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq q11 0 1",
+
+                // Test fifth FEN argument - half move clock
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 120 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - -20 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 2390984 1",
+
+                // Test sixth FEN argument - full move number
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 -120",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 -39489"
+        };
+        for (String FEN : FENsToTest) {
+            assertThrows(IllegalArgumentException.class, () -> new Board(FEN));
+        }
+    }
+    @Test
+    public void testFENGeneration() {
+        // Test position 1
+        Board board = new Board("8/3k3p/1p6/1Np5/2P3P1/4p3/3bK3/8 w - - 0 54");
+        board.makeMove("g4", "g5");
+        assertEquals("8/3k3p/1p6/1Np3P1/2P5/4p3/3bK3/8 b - - 0 54", board.getFEN());
+
+        //Test position 2
+        board = new Board("r1b1qrkb/pp1n1p1p/4p1pP/2pnP1B1/3p2N1/3P1NP1/PPP2PB1/R2QR1K1 b - - 6 16");
+        board.makeMove("d7", "b6");
+        assertEquals("r1b1qrkb/pp3p1p/1n2p1pP/2pnP1B1/3p2N1/3P1NP1/PPP2PB1/R2QR1K1 w - - 7 17", board.getFEN());
+
+        //Test position 3
+        board = new Board("3N1R2/P7/5k2/5bp1/r7/r4BK1/6P1/8 b - - 10 53");
+        board.makeMove("f6", "e5");
+        assertEquals("3N1R2/P7/8/4kbp1/r7/r4BK1/6P1/8 w - - 11 54", board.getFEN());
+
+    }
+    @Test
+    public void testBinaryEncoding() {
+        // Test that every position reads back as the same FEN and key, from a buffer of either byte order, at any index.
+        Board board = new Board();
+        Board decoded = new Board();
+        ByteBuffer buffer = ByteBuffer.allocate(Board.ENCODED_BYTES * 3);
+        List<String> FENs = new ArrayList<>(List.of("4k3/8/8/3pP3/8/8/8/4K3 w - d6 12 40", "8/8/8/8/8/8/8/8 b - - 0 1"));
+        for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) FENs.add(position.FEN);
+        for (String FEN : FENs) {
+            board.reset(FEN);
+            buffer.clear();
+            buffer.order(ByteOrder.LITTLE_ENDIAN).position(Board.ENCODED_BYTES);
+            board.encode(buffer);
+            assertEquals(Board.ENCODED_BYTES * 2, buffer.position());
+            decoded.decode(buffer.order(ByteOrder.BIG_ENDIAN), Board.ENCODED_BYTES);
+            assertEquals(FEN, decoded.getFEN());
+            assertEquals(board.hashKey(), decoded.hashKey());
+            assertEquals(board.pawnKey(), decoded.pawnKey());
+        }
+        // Test that equal positions give equal bytes, and different ones different bytes, so the bytes can be used as keys.
+        board.reset();
+        for (String move : new String[]{"g1f3", "g8f6", "b1c3", "b8c6"}) board.makeMove(move.substring(0, 2), move.substring(2));
+        Board transposed = new Board();
+        for (String move : new String[]{"b1c3", "b8c6", "g1f3", "g8f6"}) transposed.makeMove(move.substring(0, 2), move.substring(2));
+        ByteBuffer first = ByteBuffer.allocate(Board.ENCODED_BYTES);
+        ByteBuffer second = ByteBuffer.allocate(Board.ENCODED_BYTES);
+        board.encode(first, 0);
+        transposed.encode(second, 0);
+        assertEquals(first, second);
+        transposed.makeMove("a2", "a3");
+        transposed.encode(second, 0);
+        assertNotEquals(first, second);
+        // Test that bytes encode could not have written are rejected, leaving the board as it was.
+        board.reset();
+        ByteBuffer invalid = ByteBuffer.allocate(Board.ENCODED_BYTES);
+        invalid.putLong(0, 1L).putLong(8, 0xC000000000000000L).putLong(24, 1L << 32);
+        assertThrows(IllegalArgumentException.class, () -> board.decode(invalid, 0));
+        invalid.putLong(8, 0L).putLong(24, 0L);
+        assertThrows(IllegalArgumentException.class, () -> board.decode(invalid, 0));
+        invalid.putLong(24, 1L << 32).putLong(16, 1L);
+        assertThrows(IllegalArgumentException.class, () -> board.decode(invalid, 0));
+        assertEquals(Board.STARTING_BOARD_FEN, board.getFEN());
+        board.reset("QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/8/8/k6K w - - 0 1");
+        assertThrows(IllegalArgumentException.class, () -> board.encode(ByteBuffer.allocate(Board.ENCODED_BYTES)));
+    }
+    @Test
+    public void testFENScanning() throws IOException {
+        // Test that errors give the character offset at which the FEN goes wrong.
+        Board board = new Board(Perft.STANDARD_POSITIONS.get(1).FEN);
+        assertTrue(board.getExceptionMessageForFENValidityIfExists("rnbqkbnr/pppppppp/8/8/4p4/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1").contains("at character 24: rank 4"));
+        assertTrue(board.getExceptionMessageForFENValidityIfExists("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w kK - 0 1").contains("at character 47: the castling"));
+        assertTrue(board.getExceptionMessageForFENValidityIfExists("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra").contains("at character 56: there is more"));
+        assertTrue(board.getExceptionMessageForFENValidityIfExists("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w  - 0 1").contains("at character 46: the castling rights are missing"));
+        assertNull(board.getExceptionMessageForFENValidityIfExists(Board.STARTING_BOARD_FEN + " \n"));
+        // Test that a FEN that fails leaves the board as it was, and that any CharSequence can be read.
+        assertThrows(IllegalArgumentException.class, () -> board.setValues("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0"));
+        assertEquals(Perft.STANDARD_POSITIONS.get(1).FEN, board.getFEN());
+        board.setValues(new StringBuilder("4k3/8/8/3pP3/8/8/8/4K3 w - d6 12 40"));
+        assertEquals("4k3/8/8/3pP3/8/8/8/4K3 w - d6 12 40", board.getFEN());
+        assertEquals(Zobrist.compute(board), board.hashKey());
+        assertEquals(Zobrist.computePawnKey(board), board.pawnKey());
+        // Test that the FEN can be written into a StringBuilder, any Appendable, or a byte array, and reads back the same.
+        for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) {
+            board.reset(position.FEN);
+            assertEquals(position.FEN, board.appendFEN(new StringBuilder("FEN: ")).substring(5));
+            StringWriter writer = new StringWriter();
+            board.appendFEN(writer);
+            assertEquals(position.FEN, writer.toString());
+            byte[] buffer = new byte[Board.MAX_FEN_LENGTH + 3];
+            int end = board.writeFEN(buffer, 3);
+            assertEquals(position.FEN, new String(buffer, 3, end - 3, StandardCharsets.US_ASCII));
+            assertEquals(new Board(position.FEN).hashKey(), board.hashKey());
+        }
+        assertThrows(IllegalArgumentException.class, () -> board.writeFEN(new byte[Board.MAX_FEN_LENGTH], 1));
+    }
+    @Test
+    public void testGetSquareAtPosition() {
+        Board board = new Board();
+        Position at = new Position("e1");
+        assertEquals(new Square(at, PieceType.King, PieceColor.White), board.getSquareAtPosition(at));
+        at = new Position("f7");
+        assertEquals(new Square(at, PieceType.Pawn, PieceColor.Black), board.getSquareAtPosition(at));
+        at = new Position("b1");
+        assertEquals(new Square(at, PieceType.Knight, PieceColor.White), board.getSquareAtPosition(at));
+    }
+    @Test
+    public void testGetPieceColorFromChar() {
+        assertEquals(PieceColor.Black, Board.getPieceColorFromChar('q'));
+        assertEquals(PieceColor.Black, Board.getPieceColorFromChar('p'));
+        assertEquals(PieceColor.White, Board.getPieceColorFromChar('R'));
+        assertEquals(PieceColor.White, Board.getPieceColorFromChar('B'));
+        assertThrows(IllegalArgumentException.class, () -> Board.getPieceColorFromChar('&'));
+        assertThrows(IllegalArgumentException.class, () -> Board.getPieceColorFromChar('a'));
+    }
+    @Test
+    public void testGetPieceTypeFromChar() {
+        assertEquals(PieceType.Bishop, Board.getPieceTypeFromChar('b'));
+        assertEquals(PieceType.Bishop, Board.getPieceTypeFromChar('B'));
+        assertEquals(PieceType.Queen, Board.getPieceTypeFromChar('q'));
+        assertEquals(PieceType.Queen, Board.getPieceTypeFromChar('Q'));
+        assertThrows(IllegalArgumentException.class, () -> Board.getPieceTypeFromChar('&'));
+        assertThrows(IllegalArgumentException.class, () -> Board.getPieceTypeFromChar('a'));
+    }
+    @Test
+    public void testGetCharFromPiece() {
+        assertEquals('n', Board.getCharFromPiece(PieceType.Knight, PieceColor.Black));
+        assertEquals('k', Board.getCharFromPiece(PieceType.King, PieceColor.Black));
+        assertEquals('P', Board.getCharFromPiece(PieceType.Pawn, PieceColor.White));
+        assertEquals('B', Board.getCharFromPiece(PieceType.Bishop, PieceColor.White));
+        assertThrows(IllegalStateException.class, () -> Board.getCharFromPiece(PieceType.Empty, PieceColor.White));
+    }
+    @Test
+    public void testPieceTypeToString() {
+        assertEquals("King", Board.pieceTypeToString(PieceType.King));
+        assertEquals("Queen", Board.pieceTypeToString(PieceType.Queen));
+        assertEquals("Rook", Board.pieceTypeToString(PieceType.Rook));
+        assertEquals("Bishop", Board.pieceTypeToString(PieceType.Bishop));
+        assertEquals("Knight", Board.pieceTypeToString(PieceType.Knight));
+        assertEquals("Pawn", Board.pieceTypeToString(PieceType.Pawn));
+        assertEquals("Empty", Board.pieceTypeToString(PieceType.Empty));
+    }
+    @Test
+    public void testCharIsInBetween() {
+        assertTrue(Board.charIsBetween('5', 3, 8));
+        assertTrue(Board.charIsBetween('7', 6, 7));
+        assertTrue(Board.charIsBetween('1', 0, 7));
+        assertTrue(Board.charIsBetween0And8('5'));
+        assertFalse(Board.charIsBetween('1', 4, 6));
+        assertFalse(Board.charIsBetween('9', 3, 4));
+        assertFalse(Board.charIsBetween0And8('9'));
+    }
+    @Test
+    public void testLocateKing() {
+        Board board = new Board();
+        assertEquals(new Position("e1"), board.locateKing(PieceColor.White));
+        assertEquals(new Position("e8"), board.locateKing(PieceColor.Black));
+        // Board with same layout as starting position, except white king is replaced with a pawn
+        Board board1 = new Board("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQPBNR w KQkq - 0 1");
+        assertThrows(IllegalStateException.class, () -> board1.locateKing(PieceColor.White));
+    }
+    @Test
+    public void testIsSquareAttacked() {
+        Board board = new Board("r1b1k1nr/1ppp1p2/p1n1p1pp/3N1q2/1bB1P1Q1/1P3N2/P1PP1PPP/R1B1K2R w KQkq - 0 9");
+        // Test each kind of attacker: pawn, knight, bishop, rook, queen and king.
+        assertTrue(board.isSquareAttacked(new Position("f5"), PieceColor.White));
+        assertTrue(board.isSquareAttacked(new Position("c7"), PieceColor.White));
+        assertTrue(board.isSquareAttacked(new Position("d2"), PieceColor.Black));
+        assertTrue(board.isSquareAttacked(new Position("e5"), PieceColor.White));
+        assertTrue(board.isSquareAttacked(new Position("f3"), PieceColor.Black));
+        assertTrue(board.isSquareAttacked(new Position("g1"), PieceColor.White));
+        // Test that pieces in the way block the attack.
+        assertFalse(board.isSquareAttacked(new Position("f1"), PieceColor.Black));
+        assertFalse(board.isSquareAttacked(new Position("h2"), PieceColor.Black));
+        assertFalse(board.isInCheck(PieceColor.White));
+        // Test that the king's square follows it through castling and taking the move back.
+        board.makeMove("e1", "g1");
+        assertEquals(new Position("g1"), board.locateKing(PieceColor.White));
+        board.unmakeMove();
+        assertEquals(new Position("e1"), board.locateKing(PieceColor.White));
+        // Test that pawns do not attack straight ahead.
+        board = new Board("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        assertFalse(board.isSquareAttacked(new Position("e3"), PieceColor.White));
+        assertTrue(board.isSquareAttacked(new Position("d3"), PieceColor.White));
+        board = new Board("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        assertTrue(board.isInCheck(PieceColor.White));
+        assertFalse(board.isInCheck(PieceColor.Black));
+    }
+    @Test
+    public void testIsCapture() {
+        Board board = new Board("rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2");
+        assertTrue(Board.isCapture(board.getSquareAtPosition(new Position("e4")), board.getSquareAtPosition(new Position("d5"))));
+        assertFalse(Board.isCapture(board.getSquareAtPosition(new Position("e4")), board.getSquareAtPosition(new Position("e5"))));
+
+        board = new Board("rnbqkbnr/ppp1pppp/8/3p4/4P1Q1/8/PPPP1PPP/RNB1KBNR b KQkq - 1 2");
+        assertTrue(Board.isCapture(board.getSquareAtPosition(new Position("c8")), board.getSquareAtPosition(new Position("g4"))));
+        assertFalse(Board.isCapture(board.getSquareAtPosition(new Position("c8")), board.getSquareAtPosition(new Position("f5"))));
+    }
+    @Test
+    public void testFindMoves() {
+
+        Board board = new Board();
+        // Test Pawns
+        ArrayList<Move> sampleMoves0 = new ArrayList<>();
+        String[] strings0 = {"e3", "e4"};
+        for (String str : strings0) {
+            sampleMoves0.add(new Move(new Position("e2"), new Position(str)));
+        }
+        assertEquals(sampleMoves0, board.findMoves("e2"));
+
+        ArrayList<Move> sampleMoves1 = new ArrayList<>();
+        String[] strings1 = {"e6", "e5"};
+        for (String str : strings1) {
+            sampleMoves1.add(new Move(new Position("e7"), new Position(str)));
+        }
+        assertEquals(sampleMoves1, board.findMoves("e7"));
+        // Test Knights
+        board = new Board("rnbqkb1r/pppppppp/8/4N2n/8/8/PPPPPPPP/RNBQKB1R w KQkq - 4 3");
+        ArrayList<Move> sampleMoves2 = new ArrayList<>();
+        String[] strings2 = {"d3", "f3", "c4", "g4", "c6", "g6", "d7", "f7"};
+        for (String str : strings2) {
+            sampleMoves2.add(new Move(new Position("e5"), new Position(str)));
+        }
+        assertTrue(equalsIgnoringOrder(sampleMoves2, board.findMoves("e5")));
+
+        // Test Bishops
+
+        board = new Board("rnbqkbnr/pppp1pp1/4p2p/8/2B5/4P3/PPPP1PPP/RNBQK1NR w KQkq - 0 3");
+        ArrayList<Move> sampleMoves3 = new ArrayList<>();
+        String[] strings3 = {"b3", "d3", "e2", "f1", "b5", "d5", "a6", "e6"};
+        for (String str : strings3) {
+            sampleMoves3.add(new Move(new Position("c4"), new Position(str)));
+        }
+        assertTrue(equalsIgnoringOrder(sampleMoves3, board.findMoves("c4")));
+
+        // Test Rooks
+        board = new Board("rnbqkbnr/pppp4/4pppp/8/2R4P/8/PPPPPPP1/RNBQKBN1 w Qkq - 0 5");
+        ArrayList<Move> sampleMoves4 = new ArrayList<>();
+        String[] strings4 = {"c3", "a4", "b4", "d4", "e4", "f4", "g4", "c5", "c6", "c7"};
+        for (String str : strings4) {
+            sampleMoves4.add(new Move(new Position("c4"), new Position(str)));
+        }
+        assertTrue(equalsIgnoringOrder(sampleMoves4, board.findMoves("c4")));
+
+        // Test Queens
+
+        board = new Board("rnbqkbnr/pppppp2/6pp/8/6Q1/4P3/PPPP1PPP/RNB1KBNR w KQkq - 0 3");
+        ArrayList<Move> sampleMoves5 = new ArrayList<>();
+        String[] strings5 = {"d1", "e2", "f3", "g3", "h3", "a4", "b4", "c4", "d4", "e4", "f4", "h4", "f5", "g5", "h5", "e6", "g6", "d7"};
+        for (String str : strings5) {
+            sampleMoves5.add(new Move(new Position("g4"), new Position(str)));
+        }
+        assertTrue(equalsIgnoringOrder(sampleMoves5, board.findMoves("g4")));
+
+        //Test Kings
+
+        board = new Board("rnbqk1nr/ppppp1b1/5ppp/8/2K5/4P3/PPPP1PPP/RNBQ1BNR w kq - 2 7");
+        ArrayList<Move> sampleMoves6 = new ArrayList<>();
+        String[] strings6 = {"b3", "c3", "d3", "b4", "d4", "b5", "c5", "d5"};
+        for (String str : strings6) {
+            sampleMoves6.add(new Move(new Position("c4"), new Position(str)));
+        }
+        assertTrue(equalsIgnoringOrder(sampleMoves6, board.findMoves("c4")));
+
+        // Test En Passant
+
+        board = new Board("rnbqkbnr/1pppp1pp/p7/5pP1/8/8/PPPPPP1P/RNBQKBNR w KQkq f6 0 3");
+        ArrayList<Move> sampleMoves7 = new ArrayList<>();
+        String[] strings7 = {"f6", "g6"};
+        for (String str : strings7) {
+            sampleMoves7.add(new Move(new Position("g5"), new Position(str)));
+        }
+        assertTrue(equalsIgnoringOrder(sampleMoves7, board.findMoves("g5")));
+
+        board = new Board("rnbqkbnr/p1pppppp/8/8/1pP4P/8/PP1PPPP1/RNBQKBNR b KQkq c3 0 3");
+        ArrayList<Move> sampleMoves8 = new ArrayList<>();
+        String[] strings8 = {"b3", "c3"};
+        for (String str : strings8) {
+            sampleMoves8.add(new Move(new Position("b4"), new Position(str)));
+        }
+        assertTrue(equalsIgnoringOrder(sampleMoves8, board.findMoves("b4")));
+    }
+    @Test
+    public void testMakeMove() {
+        Board board = new Board();
+        board.makeMove("e2", "e4");
+        // Make sure original position of piece is empty
+        assertEquals(new Square("e2"), board.getSquareAtPosition("e2"));
+        assertEquals(new Square("e4", PieceType.Pawn, PieceColor.White), board.getSquareAtPosition("e4"));
+
+        board = new Board("rnbqkb1r/pppppppp/7n/5N2/8/8/PPPPPPPP/RNBQKB1R w KQkq - 6 4");
+        board.makeMove("f5", "h6");
+        // Make sure original position of piece is empty
+        assertEquals(new Square("f5"), board.getSquareAtPosition("f5"));
+        assertEquals(new Square("h6", PieceType.Knight, PieceColor.White), board.getSquareAtPosition("h6"));
+    }
+    @Test
+    public void testRemoveCastlingRights() {
+        Board board = new Board();
+        assertEquals("KQkq", board.castlingRights.orElseThrow());
+        board.removeCastlingRights("KQ");
+        assertEquals("kq", board.castlingRights.orElseThrow());
+        board = new Board();
+        board.removeCastlingRights("k");
+        board.removeCastlingRights("Q");
+        assertEquals("Kq", board.castlingRights.orElseThrow());
+        board.reset();
+        board.removeCastlingRights("kq");
+        assertEquals("KQ", board.castlingRights.orElseThrow());
+    }
+
+    @Test
+    public void testResultsInCheck() {
+        Board board = new Board("rnb1k1nr/pppp1p2/4pqpp/8/1b2P1Q1/1P6/P1PPKPPP/RNB2BNR w kq - 3 6");
+        assertTrue(board.resultsInCheck("e2", "f3", PieceColor.White));
+        board = new Board("r1b1k1nr/1ppp1p2/p1n1p1pp/3N1q2/1bB1P1Q1/1P3N2/P1PP1PPP/R1B1K2R w KQkq - 0 9");
+        assertTrue(board.resultsInCheck("d2", "d3", PieceColor.White));
+        board = new Board("r1b3nr/1ppp1p2/p1n1pkpp/5q2/1NB1P1QP/1P3N2/P1PP1PP1/R1B1K2R b KQ - 0 11");
+        assertTrue(board.resultsInCheck("f6", "g5", PieceColor.Black));
+        assertTrue(board.resultsInCheck("f6", "e5", PieceColor.Black));
+        assertFalse(board.resultsInCheck("f5", "f3", PieceColor.Black));
+        board = new Board("r1b3nr/1ppp1p2/2n1pkp1/p5pP/1NBNP3/1P4q1/P1PP1PP1/R1B1K2R w KQ - 0 15");
+        assertTrue(board.resultsInCheck("f2", "f3", PieceColor.White));
+        assertTrue(board.resultsInCheck("f2", "f4", PieceColor.White));
+        assertFalse(board.resultsInCheck("c2", "c3", PieceColor.White));
+    }
+    @Test
+    public void testUnmakeMove() {
+        // Test that castling moves the rook, and that unmaking it restores the castling rights.
+        String FEN = "r3k2r/pppq1ppp/2np1n2/2b1p1B1/2B1P1b1/2NP1N2/PPPQ1PPP/R3K2R w KQkq - 4 8";
+        Board board = new Board(FEN);
+        board.makeMove("e1", "g1");
+        assertEquals("r3k2r/pppq1ppp/2np1n2/2b1p1B1/2B1P1b1/2NP1N2/PPPQ1PPP/R4RK1 b kq - 5 8", board.getFEN());
+        board.makeMove("e8", "c8");
+        assertEquals("2kr3r/pppq1ppp/2np1n2/2b1p1B1/2B1P1b1/2NP1N2/PPPQ1PPP/R4RK1 w - - 6 9", board.getFEN());
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(FEN, board.getFEN());
+        // Test that a capture is restored, and that capturing a rook on its home square removes that castling right.
+        board = new Board("r3k2r/1pp2ppp/8/8/8/8/1PP2PPP/R3K2R w KQkq - 0 1");
+        board.makeMove("a1", "a8");
+        assertEquals("R3k2r/1pp2ppp/8/8/8/8/1PP2PPP/4K2R b Kk - 0 1", board.getFEN());
+        board.unmakeMove();
+        assertEquals("r3k2r/1pp2ppp/8/8/8/8/1PP2PPP/R3K2R w KQkq - 0 1", board.getFEN());
+        // Test that en passant and promotion are restored.
+        FEN = "4k3/1P6/8/3pP3/8/8/8/4K3 w - d6 0 30";
+        board = new Board(FEN);
+        board.makeMove("e5", "d6");
+        assertEquals("4k3/1P6/3P4/8/8/8/8/4K3 b - - 0 30", board.getFEN());
+        board.makeMove("e8", "d7");
+        board.makeMove(new Move(new Position("b7"), new Position("b8"), PieceType.Queen));
+        assertEquals("1Q6/3k4/3P4/8/8/8/8/4K3 b - - 0 31", board.getFEN());
+        board.unmakeMove();
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(FEN, board.getFEN());
+        assertThrows(IllegalStateException.class, board::unmakeMove);
+        // Test that a full move number beyond 16 bits is restored whole.
+        FEN = "4k3/8/8/8/8/8/8/4K3 b - - 45 70000";
+        board = new Board(FEN);
+        board.makeMove("e8", "d8");
+        assertEquals("3k4/8/8/8/8/8/8/4K3 w - - 46 70001", board.getFEN());
+        board.makeMove("e1", "d1");
+        board.unmakeMove();
+        board.unmakeMove();
+        assertEquals(FEN, board.getFEN());
+    }
+    @Test
+    public void testGenerateMoves() {
+        Board board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        MoveList moveList = new MoveList();
+        board.generateMoves(PieceColor.White, moveList);
+        // Test that the packed moves are the same moves that the ArrayList and HashSet adapters return.
+        assertTrue(equalsIgnoringOrder(new ArrayList<>(board.getMovesOfAllPieces(PieceColor.White)), moveList.toMoves()));
+        // Test that the flags are set for captures and castling.
+        int capture = Move.encode(Bitboard.squareIndex(new Position("e5")), Bitboard.squareIndex(new Position("f7")), PieceType.Empty, Move.CAPTURE);
+        int castling = Move.encode(Bitboard.squareIndex(new Position("e1")), Bitboard.squareIndex(new Position("g1")), PieceType.Empty, Move.CASTLING);
+        assertTrue(moveList.contains(capture));
+        assertTrue(moveList.contains(castling));
+        assertEquals(new Move("e5", "f7"), Move.decode(capture));
+        assertEquals("e1g1", Move.encodedToString(castling));
+        // Test that a cleared list can be reused for the other side.
+        moveList.clear();
+        board.generateMoves(Bitboard.squareIndex(new Position("e7")), moveList);
+        assertEquals(board.findMoves("e7"), moveList.toMoves());
+        assertThrows(IllegalArgumentException.class, () -> board.generateMoves(Bitboard.squareIndex(new Position("e3")), new MoveList()));
+    }
+    @Test
+    public void testGetLegalMoves() {
+        // Test that the legal moves are exactly the pseudo-legal moves that do not leave the king in check, in every position two plies deep.
+        for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) {
+            Board board = new Board(position.FEN);
+            assertLegalMovesMatch(board);
+            MoveList moves = new MoveList();
+            board.generateLegalMoves(board.getToMove(), moves);
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeMove(moves.get(i));
+                assertLegalMovesMatch(board);
+                board.unmakeMove();
+            }
+        }
+        // Test that en passant is not allowed when removing both pawns uncovers the rook on the king's row.
+        Board board = new Board("8/8/8/K1pP3r/8/8/8/7k w - c6 0 1");
+        ArrayList<Move> legalMoves = board.getLegalMoves(PieceColor.White);
+        assertFalse(legalMoves.contains(new Move("d5", "c6")));
+        assertTrue(legalMoves.contains(new Move("d5", "d6")));
+        // Test that en passant can capture a pawn that gives check.
+        board = new Board("8/8/8/2k5/3Pp3/8/8/4K3 b - d3 0 1");
+        assertTrue(board.getLegalMoves(PieceColor.Black).contains(new Move("e4", "d3")));
+        // Test that only the king may move in double check.
+        board = new Board("4k3/8/8/8/8/3n4/8/R3K2r w - - 0 1");
+        assertFalse(board.getLegalMoves(PieceColor.White).isEmpty());
+        for (Move move : board.getLegalMoves(PieceColor.White)) {
+            assertEquals(new Position("e1"), move.origin);
+        }
+        // Test that a pinned piece may only move along the pin, including capturing the pinning piece.
+        board = new Board("4k3/8/8/8/4r3/8/4R3/4K3 w - - 0 1");
+        ArrayList<Move> rookMoves = new ArrayList<>();
+        for (Move move : board.getLegalMoves(PieceColor.White)) {
+            if (move.origin.equals(new Position("e2"))) rookMoves.add(move);
+        }
+        assertTrue(equalsIgnoringOrder(new ArrayList<>(List.of(new Move("e2", "e3"), new Move("e2", "e4"))), rookMoves));
+        // Test that the king may not castle through an attacked square, but may castle on the other side.
+        board = new Board("4k3/8/8/8/8/8/5r2/R3K2R w KQ - 0 1");
+        legalMoves = board.getLegalMoves(PieceColor.White);
+        assertFalse(legalMoves.contains(new Move("e1", "g1")));
+        assertTrue(legalMoves.contains(new Move("e1", "c1")));
+    }
+    private static void assertLegalMovesMatch(Board board) {
+        PieceColor sideToMove = board.getToMove();
+        ArrayList<Move> expected = new ArrayList<>();
+        for (Move move : board.getMovesOfAllPieces(sideToMove)) {
+            if (!board.resultsInCheck(move, sideToMove)) expected.add(move);
+        }
+        assertTrue(board.getFEN(), equalsIgnoringOrder(expected, board.getLegalMoves(sideToMove)));
+        assertMoveKindsMatch(board);
+    }
+    // The noisy and the quiet moves split the legal moves between them, and so do the moves of each piece.
+    private static void assertMoveKindsMatch(Board board) {
+        PieceColor sideToMove = board.getToMove();
+        MoveList all = new MoveList(), noisy = new MoveList(), quiet = new MoveList(), byPiece = new MoveList();
+        board.generateLegalMoves(sideToMove, all);
+        board.generateLegalMoves(sideToMove, noisy, MoveKind.Noisy);
+        board.generateLegalMoves(sideToMove, quiet, MoveKind.Quiet);
+        assertEquals(board.getFEN(), all.size(), noisy.size() + quiet.size());
+        for (int i = 0; i < noisy.size(); i++) {
+            assertTrue(all.contains(noisy.get(i)));
+            assertFalse(MoveOrdering.isQuiet(noisy.get(i)));
+        }
+        for (int i = 0; i < quiet.size(); i++) {
+            assertTrue(all.contains(quiet.get(i)));
+            assertTrue(MoveOrdering.isQuiet(quiet.get(i)));
+        }
+        for (long pieces = board.getColorBitboard(sideToMove); pieces != 0L; pieces = Bitboard.removeLowestSquare(pieces)) {
+            board.generateLegalMoves(sideToMove, byPiece, MoveKind.All, Bitboard.squareMask(Bitboard.lowestSquare(pieces)));
+        }
+        assertEquals(board.getFEN(), all.size(), byPiece.size());
+    }
+    @Test
+    public void testSee() {
+        // Test that taking an undefended pawn wins the pawn.
+        Board board = new Board("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1");
+        assertEquals(100, board.see(new Move("e1", "e5")));
+        // Test that a knight taking a pawn defended twice, with more attackers behind it, loses the knight for the pawn.
+        board = new Board("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1");
+        assertEquals(100 - 320, board.see(new Move("d3", "e5")));
+        // Test that a queen taking a defended pawn loses the queen, and that the defender stops once it is ahead.
+        board = new Board("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1");
+        assertEquals(100 - 900, board.see(new Move("e1", "e5")));
+        // Test that a rook behind the capturing rook joins in once the first one has captured, so the pawn is won.
+        board = new Board("3rk3/8/8/8/3p4/8/3R4/3RK3 w - - 0 1");
+        assertEquals(100, board.see(new Move("d2", "d4")));
+        // Test that the king recaptures last, and only on a square the other side no longer attacks.
+        board = new Board("8/8/4k3/3p4/8/8/8/3RK3 w - - 0 1");
+        assertEquals(100 - 500, board.see(new Move("d1", "d5")));
+        board = new Board("8/8/4k3/3p4/8/1B6/8/3RK3 w - - 0 1");
+        assertEquals(100, board.see(new Move("d1", "d5")));
+        // Test that en passant wins the captured pawn, and that a promotion gains the promoted piece less the pawn.
+        board = new Board("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1");
+        assertEquals(100, board.see(Move.encode(new Move("e5", "d6"))));
+        board = new Board("4k3/P7/8/8/8/8/8/4K3 w - - 0 1");
+        assertEquals(800, board.see(new Move(Position.of("a7"), Position.of("a8"), PieceType.Queen)));
+        // Test that a quiet move to an attacked square loses the piece, and to a defended one does not.
+        board = new Board("4k3/8/8/8/3p4/8/8/2B1K3 w - - 0 1");
+        assertEquals(-330, board.see(new Move("c1", "e3")));
+        assertEquals(0, board.see(new Move("c1", "d2")));
+    }
+    @Test
+    public void testHashKey() {
+        // Test that the incrementally updated keys, of the whole position and of the pawns, always equal the keys computed from scratch,
+        // and are restored by unmakeMove.
+        for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) {
+            Board board = new Board(position.FEN);
+            assertEquals(Zobrist.compute(board), board.hashKey());
+            assertEquals(Zobrist.computePawnKey(board), board.pawnKey());
+            assertHashKeyMatches(board, 3);
+            assertEquals(new Board(position.FEN).hashKey(), board.hashKey());
+        }
+        // Test that the same position reached by different move orders has the same key. The second order ends with a double pawn push,
+        // but no black pawn can capture en passant, so the target square does not change the key.
+        Board board0 = new Board();
+        Board board1 = new Board();
+        for (String move : new String[]{"e2e4", "e7e5", "g1f3"}) board0.makeMove(move.substring(0, 2), move.substring(2));
+        for (String move : new String[]{"g1f3", "e7e5", "e2e4"}) board1.makeMove(move.substring(0, 2), move.substring(2));
+        assertEquals(board0.hashKey(), board1.hashKey());
+        assertNotEquals(board0.getFEN(), board1.getFEN());
+        // Test that the side to move, castling rights and a usable en passant capture all change the key.
+        Board board = new Board();
+        long startingKey = board.hashKey();
+        board.switchToMove();
+        assertNotEquals(startingKey, board.hashKey());
+        assertEquals(Zobrist.compute(board), board.hashKey());
+        board = new Board();
+        board.removeCastlingRights("K");
+        assertNotEquals(startingKey, board.hashKey());
+        assertEquals(Zobrist.compute(board), board.hashKey());
+        assertNotEquals(new Board("rnbqkbnr/1pppp1pp/p7/5pP1/8/8/PPPPPP1P/RNBQKBNR w KQkq f6 0 3").hashKey(),
+                new Board("rnbqkbnr/1pppp1pp/p7/5pP1/8/8/PPPPPP1P/RNBQKBNR w KQkq - 0 3").hashKey());
+    }
+    private static void assertHashKeyMatches(Board board, int depth) {
+        if (depth == 0) return;
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getToMove(), moves);
+        long key = board.hashKey();
+        long pawnKey = board.pawnKey();
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            assertEquals(board.getFEN(), Zobrist.compute(board), board.hashKey());
+            assertEquals(board.getFEN(), Zobrist.computePawnKey(board), board.pawnKey());
+            assertHashKeyMatches(board, depth - 1);
+            board.unmakeMove();
+            assertEquals(key, board.hashKey());
+            assertEquals(pawnKey, board.pawnKey());
+        }
+    }
+    @Test
+    public void testIsRepetition() {
+        // Test that a position counts as repeated once both knights have gone out and back.
+        Board board = new Board();
+        String[] moves = {"g1f3", "g8f6", "f3g1", "f6g8"};
+        for (String move : moves) {
+            assertFalse(board.isRepetition());
+            board.makeMove(move.substring(0, 2), move.substring(2));
+        }
+        assertTrue(board.isRepetition());
+        board.unmakeMove();
+        assertFalse(board.isRepetition());
+        // Test that a pawn move in between means no earlier position can come back.
+        board = new Board();
+        for (String move : new String[]{"g1f3", "g8f6", "f3g1", "e7e6", "g1f3", "f8e7", "f3g1", "e7f8"}) {
+            board.makeMove(move.substring(0, 2), move.substring(2));
+        }
+        assertTrue(board.isRepetition());
+        board = new Board();
+        for (String move : new String[]{"g1f3", "g8f6", "e2e3", "f6g8", "f3g1"}) {
+            board.makeMove(move.substring(0, 2), move.substring(2));
+        }
+        assertFalse(board.isRepetition());
+    }
+    @Test
+    public void testBitboards() {
+        Board board = new Board();
+        // Test that the occupancy bitboards match the starting position: ranks 1 and 2 for white, ranks 7 and 8 for black.
+        assertEquals(0x000000000000FFFFL, board.getColorBitboard(PieceColor.White));
+        assertEquals(0xFFFF000000000000L, board.getColorBitboard(PieceColor.Black));
+        assertEquals(0xFFFF00000000FFFFL, board.getOccupiedBitboard());
+        assertEquals(0x000000000000FF00L, board.getPieceBitboard(PieceType.Pawn, PieceColor.White));
+        assertEquals(Bitboard.squareMask(Bitboard.squareIndex(new Position("d8"))), board.getPieceBitboard(PieceType.Queen, PieceColor.Black));
+        // Test that a copied board does not share state with the original.
+        Board copy = new Board(board);
+        copy.makeMove("e2", "e4");
+        assertEquals(Board.STARTING_BOARD_FEN, board.getFEN());
+        assertEquals(new Square("e4", PieceType.Pawn, PieceColor.White), copy.getSquareAtPosition("e4"));
+        assertEquals(16, Bitboard.count(copy.getColorBitboard(PieceColor.White)));
+        // Test that an en passant capture removes the captured pawn from the bitboards.
+        board = new Board("rnbqkbnr/1pppp1pp/p7/5pP1/8/8/PPPPPP1P/RNBQKBNR w KQkq f6 0 3");
+        board.makeMove("g5", "f6");
+        assertEquals(15, Bitboard.count(board.getColorBitboard(PieceColor.Black)));
+        assertEquals("rnbqkbnr/1pppp1pp/p4P2/8/8/8/PPPPPP1P/RNBQKBNR b KQkq - 0 3", board.getFEN());
+    }
+    public static boolean equalsIgnoringOrder(ArrayList<Move> list0, ArrayList<Move> list1) {
+        return list0.containsAll(list1) && list0.size() == list1.size();
+    }
+    @Test
+    public void testEqualsIgnoringOrder() {
+        Move move0 = new Move("e2", "e4");
+        Move move1 = new Move("e7", "e5");
+        ArrayList<Move> list0 = new ArrayList<>();
+        ArrayList<Move> list1 = new ArrayList<>();
+        list0.add(move0);
+        list0.add(move1);
+        list1.add(move1);
+        list1.add(move0);
+        assertTrue(equalsIgnoringOrder(list0, list1));
+
+    }
+
+}
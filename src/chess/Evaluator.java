@@ -0,0 +1,296 @@
+package chess;
+
+// Static evaluation from material and piece-square tables, tapered between a middlegame and an endgame score by the material left.
+// Every term depends on one piece on one square, so Board keeps the sums as running totals in putPiece and removePiece, the same way it
+// keeps its Zobrist key, and evaluating a position is a few arithmetic operations instead of a scan of the board.
+// The pawn structure terms depend on all the pawns at once, so they are cached by PawnHashTable instead, keyed on Board.pawnKey().
+// Set the system property chess.debugEvaluation to true to check the running totals against a full recomputation on every call.
+public class Evaluator {
+    public static final boolean DEBUG = Boolean.getBoolean("chess.debugEvaluation");
+    // The phase of the starting material: 1 per knight and bishop, 2 per rook and 4 per queen. Lower phases lean towards the endgame score.
+    public static final int MAX_PHASE = 24;
+
+    // Indexed by PieceType ordinal: King, Queen, Rook, Bishop, Knight, Pawn.
+    private static final int[] MIDDLEGAME_VALUES = {0, 1025, 477, 365, 337, 82};
+    private static final int[] ENDGAME_VALUES = {0, 936, 512, 297, 281, 94};
+    private static final int[] PHASE_WEIGHTS = {0, 4, 2, 1, 1, 0};
+
+    // The tables are laid out as the board is seen from white's side, with the eighth rank first; see tableIndex().
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20
+    };
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50
+    };
+    private static final int[] QUEEN_TABLE = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+    private static final int[] ROOK_TABLE = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0
+    };
+    private static final int[] BISHOP_TABLE = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] KNIGHT_TABLE = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] PAWN_MIDDLEGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+    // In the endgame a pawn is worth more the closer it is to promoting, wherever it stands on its rank.
+    private static final int[] PAWN_ENDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             20,  20,  20,  20,  20,  20,  20,  20,
+             10,  10,  10,  10,  10,  10,  10,  10,
+              0,   0,   0,   0,   0,   0,   0,   0,
+              0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[][] MIDDLEGAME_TABLES = {KING_MIDDLEGAME, QUEEN_TABLE, ROOK_TABLE, BISHOP_TABLE, KNIGHT_TABLE, PAWN_MIDDLEGAME};
+    private static final int[][] ENDGAME_TABLES = {KING_ENDGAME, QUEEN_TABLE, ROOK_TABLE, BISHOP_TABLE, KNIGHT_TABLE, PAWN_ENDGAME};
+
+    // Material plus table value of each piece (see Board.getPieceIndex) on each square, from white's point of view,
+    // so black pieces have negative values and the running totals are simply added up.
+    public static final int[][] MIDDLEGAME = new int[Board.PIECE_KINDS * 2][Bitboard.SQUARE_COUNT];
+    public static final int[][] ENDGAME = new int[Board.PIECE_KINDS * 2][Bitboard.SQUARE_COUNT];
+    public static final int[] PHASE = new int[Board.PIECE_KINDS * 2];
+
+    // Pawn structure terms, as {middlegame, endgame}. Doubled counts each pawn with another pawn of its color in front of it.
+    private static final int[] DOUBLED_PAWN = {-10, -20};
+    private static final int[] ISOLATED_PAWN = {-10, -15};
+    // A pawn that no pawn of its color on a neighbouring file can support, and that cannot advance without being captured by a pawn.
+    private static final int[] BACKWARD_PAWN = {-8, -10};
+    // Indexed by rank from the pawn's own side, so a passed pawn on the seventh rank is about to promote.
+    private static final int[] PASSED_PAWN_MIDDLEGAME = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_PAWN_ENDGAME = {0, 10, 20, 35, 60, 100, 150, 0};
+    // Middlegame bonuses for each pawn of the king's color right in front of the king, or one rank further.
+    private static final int SHIELD_NEAR = 10;
+    private static final int SHIELD_FAR = 5;
+
+    private static final long[] FILES = new long[Board.BOARD_DIMENSION];
+    private static final long[] ADJACENT_FILES = new long[Board.BOARD_DIMENSION];
+    // Indexed by [PieceColor ordinal][square]: the squares in front of a pawn on its file, and in front of it on its file and the files
+    // next to it, which must be free of enemy pawns for the pawn to be passed.
+    private static final long[][] FRONT_SPAN = new long[2][Bitboard.SQUARE_COUNT];
+    private static final long[][] PASSED_SPAN = new long[2][Bitboard.SQUARE_COUNT];
+    // Indexed by [PieceColor ordinal][king square]: the three squares in front of the king, and the three beyond them.
+    private static final long[][] SHIELD_NEAR_SQUARES = new long[2][Bitboard.SQUARE_COUNT];
+    private static final long[][] SHIELD_FAR_SQUARES = new long[2][Bitboard.SQUARE_COUNT];
+
+    static {
+        for (int piece = 0; piece < Board.PIECE_KINDS * 2; piece++) {
+            int type = piece % Board.PIECE_KINDS;
+            boolean isWhite = Board.getPieceColorFromIndex(piece) == PieceColor.White;
+            int sign = isWhite ? 1 : -1;
+            for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+                int index = tableIndex(square, isWhite);
+                MIDDLEGAME[piece][square] = sign * (MIDDLEGAME_VALUES[type] + MIDDLEGAME_TABLES[type][index]);
+                ENDGAME[piece][square] = sign * (ENDGAME_VALUES[type] + ENDGAME_TABLES[type][index]);
+            }
+            PHASE[piece] = PHASE_WEIGHTS[type];
+        }
+        for (int col = 0; col < Board.BOARD_DIMENSION; col++) {
+            for (int row = 0; row < Board.BOARD_DIMENSION; row++) {
+                FILES[col] |= Bitboard.squareMask(Bitboard.squareIndex(row, col));
+            }
+        }
+        for (int col = 0; col < Board.BOARD_DIMENSION; col++) {
+            if (col > 0) ADJACENT_FILES[col] |= FILES[col - 1];
+            if (col < Board.BOARD_DIMENSION - 1) ADJACENT_FILES[col] |= FILES[col + 1];
+        }
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            int row = Bitboard.rowOf(square), col = Bitboard.colOf(square);
+            for (int color = 0; color < 2; color++) {
+                int direction = (color == PieceColor.White.ordinal()) ? 1 : -1;
+                for (int r = row + direction; r >= 0 && r < Board.BOARD_DIMENSION; r += direction) {
+                    FRONT_SPAN[color][square] |= Bitboard.squareMask(Bitboard.squareIndex(r, col));
+                    for (int c = col - 1; c <= col + 1; c++) {
+                        if (c < 0 || c >= Board.BOARD_DIMENSION) continue;
+                        PASSED_SPAN[color][square] |= Bitboard.squareMask(Bitboard.squareIndex(r, c));
+                        if (r == row + direction) SHIELD_NEAR_SQUARES[color][square] |= Bitboard.squareMask(Bitboard.squareIndex(r, c));
+                        if (r == row + 2 * direction) SHIELD_FAR_SQUARES[color][square] |= Bitboard.squareMask(Bitboard.squareIndex(r, c));
+                    }
+                }
+            }
+        }
+    }
+
+    private Evaluator() { }
+
+    /*
+    Method Tested in EvaluatorTest.java
+    Description: This method evaluates the position from the running totals kept by the board, blending the middlegame and endgame
+                 scores by how much material is left.
+    Parameters: board(Board) -> the position to evaluate
+    Returns: the score in centipawns from the point of view of the side to move.
+    Examples: refer to test method.
+     */
+    public static int evaluate(Board board) {
+        return evaluate(board, null);
+    }
+
+    /*
+    Method Tested in EvaluatorTest.java
+    Description: This method evaluates the position like evaluate(Board), looking the pawn structure up in the given table.
+    Parameters: board(Board) -> the position to evaluate
+                pawnTable(PawnHashTable) -> the cache of pawn structure terms, or null to compute them every time
+    Returns: the score in centipawns from the point of view of the side to move.
+    Examples: refer to test method.
+     */
+    public static int evaluate(Board board, PawnHashTable pawnTable) {
+        if (DEBUG) verify(board);
+        PawnHashTable.Entry pawns;
+        if (pawnTable == null) {
+            pawns = new PawnHashTable.Entry();
+            evaluatePawnStructure(board.getPieceBitboard(PieceType.Pawn, PieceColor.White), board.getPieceBitboard(PieceType.Pawn, PieceColor.Black), pawns);
+        }
+        else {
+            pawns = pawnTable.probe(board);
+            if (DEBUG) verify(board, pawns);
+        }
+        int middlegame = board.getMiddlegameScore() + pawns.middlegameScore + kingShield(board, PieceColor.White) - kingShield(board, PieceColor.Black);
+        int endgame = board.getEndgameScore() + pawns.endgameScore;
+        int phase = Math.min(board.getGamePhase(), MAX_PHASE);
+        int score = (middlegame * phase + endgame * (MAX_PHASE - phase)) / MAX_PHASE;
+        return (board.getToMove() == PieceColor.White) ? score : -score;
+    }
+
+    // Fills the entry with the pawn structure terms, from white's point of view, and the passed pawns of each color.
+    public static void evaluatePawnStructure(long whitePawns, long blackPawns, PawnHashTable.Entry entry) {
+        int middlegame = 0, endgame = 0;
+        for (int color = 0; color < 2; color++) {
+            boolean isWhite = color == PieceColor.White.ordinal();
+            long own = isWhite ? whitePawns : blackPawns;
+            long enemy = isWhite ? blackPawns : whitePawns;
+            int sign = isWhite ? 1 : -1;
+            long passed = 0L;
+            for (long pawns = own; pawns != 0L; pawns = Bitboard.removeLowestSquare(pawns)) {
+                int square = Bitboard.lowestSquare(pawns);
+                int col = Bitboard.colOf(square);
+                int rank = isWhite ? Bitboard.rowOf(square) : Board.BOARD_DIMENSION - 1 - Bitboard.rowOf(square);
+                if ((own & FRONT_SPAN[color][square]) != 0L) {
+                    middlegame += sign * DOUBLED_PAWN[0];
+                    endgame += sign * DOUBLED_PAWN[1];
+                }
+                if ((own & ADJACENT_FILES[col]) == 0L) {
+                    middlegame += sign * ISOLATED_PAWN[0];
+                    endgame += sign * ISOLATED_PAWN[1];
+                }
+                else if ((own & ADJACENT_FILES[col] & ~PASSED_SPAN[color][square]) == 0L && isStopSquareAttacked(square, color, enemy)) {
+                    middlegame += sign * BACKWARD_PAWN[0];
+                    endgame += sign * BACKWARD_PAWN[1];
+                }
+                // The rearmost of doubled pawns is not passed, since the pawn in front of it blocks it.
+                if ((enemy & PASSED_SPAN[color][square]) == 0L && (own & FRONT_SPAN[color][square]) == 0L) {
+                    passed |= Bitboard.squareMask(square);
+                    middlegame += sign * PASSED_PAWN_MIDDLEGAME[rank];
+                    endgame += sign * PASSED_PAWN_ENDGAME[rank];
+                }
+            }
+            entry.passedPawns[color] = passed;
+        }
+        entry.middlegameScore = middlegame;
+        entry.endgameScore = endgame;
+    }
+
+    // Recomputes the totals from the pieces on the board, and throws if the running totals have drifted from them.
+    public static void verify(Board board) {
+        int middlegame = 0, endgame = 0, phase = 0;
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            int piece = board.getPieceAt(square);
+            if (piece == Board.EMPTY_SQUARE) continue;
+            middlegame += MIDDLEGAME[piece][square];
+            endgame += ENDGAME[piece][square];
+            phase += PHASE[piece];
+        }
+        if (middlegame != board.getMiddlegameScore() || endgame != board.getEndgameScore() || phase != board.getGamePhase()) {
+            throw new IllegalStateException("Evaluation totals (" + board.getMiddlegameScore() + ", " + board.getEndgameScore() + ", " + board.getGamePhase()
+                    + ") do not match the recomputed totals (" + middlegame + ", " + endgame + ", " + phase + ") for " + board.getFEN() + ".");
+        }
+    }
+
+    // Recomputes the pawn structure terms, and throws if the cached entry differs from them, which would mean a wrong pawn key.
+    private static void verify(Board board, PawnHashTable.Entry cached) {
+        if (board.pawnKey() != Zobrist.computePawnKey(board)) {
+            throw new IllegalStateException("Pawn key " + board.pawnKey() + " does not match the recomputed key for " + board.getFEN() + ".");
+        }
+        PawnHashTable.Entry expected = new PawnHashTable.Entry();
+        evaluatePawnStructure(board.getPieceBitboard(PieceType.Pawn, PieceColor.White), board.getPieceBitboard(PieceType.Pawn, PieceColor.Black), expected);
+        if (expected.middlegameScore != cached.middlegameScore || expected.endgameScore != cached.endgameScore
+                || expected.passedPawns[0] != cached.passedPawns[0] || expected.passedPawns[1] != cached.passedPawns[1]) {
+            throw new IllegalStateException("Cached pawn structure (" + cached.middlegameScore + ", " + cached.endgameScore + ") does not match the recomputed one ("
+                    + expected.middlegameScore + ", " + expected.endgameScore + ") for " + board.getFEN() + ".");
+        }
+    }
+
+    // Whether an enemy pawn attacks the square the pawn would advance to. Pawns of either color attack the same squares from each other.
+    private static boolean isStopSquareAttacked(int square, int color, long enemyPawns) {
+        int stop = square + ((color == PieceColor.White.ordinal()) ? Board.BOARD_DIMENSION : -Board.BOARD_DIMENSION);
+        return stop >= 0 && stop < Bitboard.SQUARE_COUNT && (AttackTables.PAWN_ATTACKS[color][stop] & enemyPawns) != 0L;
+    }
+    // Pawns of the king's color right in front of it. Positions without a king only appear in tests.
+    private static int kingShield(Board board, PieceColor color) {
+        int kingSquare = board.getKingSquare(color);
+        if (kingSquare == Bitboard.NO_SQUARE) return 0;
+        long pawns = board.getPieceBitboard(PieceType.Pawn, color);
+        return SHIELD_NEAR * Bitboard.count(pawns & SHIELD_NEAR_SQUARES[color.ordinal()][kingSquare])
+                + SHIELD_FAR * Bitboard.count(pawns & SHIELD_FAR_SQUARES[color.ordinal()][kingSquare]);
+    }
+
+    // White reads the tables upside down, since their first row is the eighth rank; black reads them as they are, which mirrors them.
+    private static int tableIndex(int square, boolean isWhite) {
+        int row = Bitboard.rowOf(square);
+        return (isWhite ? Board.BOARD_DIMENSION - 1 - row : row) * Board.BOARD_DIMENSION + Bitboard.colOf(square);
+    }
+}
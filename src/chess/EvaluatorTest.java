@@ -0,0 +1,104 @@
+package chess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EvaluatorTest {
+    @Test
+    public void testEvaluate() {
+        // Test that the symmetric starting position is level, whichever side is to move.
+        Board board = new Board();
+        assertEquals(0, Evaluator.evaluate(board));
+        assertEquals(Evaluator.MAX_PHASE, board.getGamePhase());
+        board.makeMove("e2", "e4");
+        assertEquals(0, Evaluator.evaluate(new Board("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1")));
+        // Test that a central pawn is better than one at home, so black, to move, is behind.
+        assertTrue(Evaluator.evaluate(board) < 0);
+        // Test that a position and its color-mirrored copy get the same score for the side to move.
+        Board position = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Board mirrored = new Board("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+        assertEquals(Evaluator.evaluate(position), Evaluator.evaluate(mirrored));
+        // Test that material counts: an extra queen is worth far more than any table bonus.
+        assertTrue(Evaluator.evaluate(new Board("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")) > 900);
+        assertTrue(Evaluator.evaluate(new Board("4k3/8/8/8/8/8/8/3QK3 b - - 0 1")) < -900);
+    }
+    @Test
+    public void testTapering() {
+        // Test that with no pieces left only the endgame tables count: a central king is better than a king in the corner.
+        Board central = new Board("7k/8/8/8/3K4/8/8/8 w - - 0 1");
+        Board corner = new Board("7k/8/8/8/8/8/8/K7 w - - 0 1");
+        assertEquals(0, central.getGamePhase());
+        assertTrue(Evaluator.evaluate(central) > Evaluator.evaluate(corner));
+        // Test that with every piece on the board only the middlegame tables count: the castled king is safer than one on e2.
+        Board castled = new Board("r1bq1rk1/pppp1ppp/2n2n2/2b1p3/2B1P3/2N2N2/PPPP1PPP/R1BQ1RK1 w - - 0 1");
+        Board uncastled = new Board("r1bq1rk1/pppp1ppp/2n2n2/2b1p3/2B1P3/2N2N2/PPPPKPPP/R1BQ1R2 w - - 0 1");
+        assertEquals(Evaluator.MAX_PHASE, castled.getGamePhase());
+        assertEquals(0, Evaluator.evaluate(castled));
+        assertTrue(Evaluator.evaluate(uncastled) < 0);
+    }
+    @Test
+    public void testPawnStructure() {
+        // Test that c2 is doubled behind c3 and both are isolated, and that only c3 is passed.
+        PawnHashTable.Entry entry = new PawnHashTable.Entry();
+        Evaluator.evaluatePawnStructure(squares("c2", "c3"), 0L, entry);
+        assertEquals(-10 - 20 + 10, entry.middlegameScore);
+        assertEquals(-20 - 30 + 20, entry.endgameScore);
+        assertEquals(squares("c3"), entry.passedPawns[PieceColor.White.ordinal()]);
+        // Test that d3 is backward, since c4 is ahead of it and e5 guards d4, that c4 is passed, and that the black e5 pawn is isolated.
+        Evaluator.evaluatePawnStructure(squares("c4", "d3"), squares("e5"), entry);
+        assertEquals(15 - 8 + 10, entry.middlegameScore);
+        assertEquals(35 - 10 + 15, entry.endgameScore);
+        assertEquals(squares("c4"), entry.passedPawns[PieceColor.White.ordinal()]);
+        assertEquals(0L, entry.passedPawns[PieceColor.Black.ordinal()]);
+        // Test that the pawns in front of a castled king count as a shield, so the same pawns are worth less with the king elsewhere.
+        Board shielded = new Board("rnbq1rk1/pppppppp/8/8/8/8/PPPPPPPP/RNBQ1RK1 w - - 0 1");
+        Board exposed = new Board("rnbq1rk1/pppppppp/8/8/8/8/PPPPPPPP/RNBQ1R1K w - - 0 1");
+        assertEquals(0, Evaluator.evaluate(shielded));
+        assertTrue(Evaluator.evaluate(new Board("rnbq1rk1/pppppppp/8/8/8/8/PPPPPPP1/RNBQ1RK1 w - - 0 1")) < Evaluator.evaluate(
+                new Board("rnbq1rk1/pppppppp/8/8/8/8/1PPPPPPP/RNBQ1RK1 w - - 0 1")));
+        assertTrue(Evaluator.evaluate(exposed) < Evaluator.evaluate(shielded));
+    }
+    @Test
+    public void testRunningTotals() {
+        // Test that the running totals match a full recomputation after every move and every unmake, through captures, castling,
+        // en passant and promotions.
+        for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) {
+            Board board = new Board(position.FEN);
+            int middlegame = board.getMiddlegameScore(), endgame = board.getEndgameScore(), phase = board.getGamePhase();
+            assertTotalsMatch(board, 3);
+            assertEquals(middlegame, board.getMiddlegameScore());
+            assertEquals(endgame, board.getEndgameScore());
+            assertEquals(phase, board.getGamePhase());
+        }
+        // Test that a promotion adds the phase of the new piece.
+        Board board = new Board("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1");
+        board.makeMove(new Move(Position.of("b7"), Position.of("b8"), PieceType.Queen));
+        assertEquals(4, board.getGamePhase());
+        Evaluator.verify(board);
+        // Test that verify notices totals that do not match the board, e.g. on a copy of a board whose totals are wrong.
+        assertThrows(IllegalStateException.class, () -> Evaluator.verify(new BoardWithWrongTotals()));
+    }
+    private static void assertTotalsMatch(Board board, int depth) {
+        Evaluator.verify(board);
+        if (depth == 0) return;
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            assertTotalsMatch(board, depth - 1);
+            board.unmakeMove();
+        }
+    }
+    private static long squares(String... squares) {
+        long bitboard = 0L;
+        for (String square : squares) bitboard |= Bitboard.squareMask(Bitboard.squareIndex(Position.of(square)));
+        return bitboard;
+    }
+    private static class BoardWithWrongTotals extends Board {
+        @Override
+        public int getMiddlegameScore() {
+            return super.getMiddlegameScore() + 1;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package chess;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Runs a task over every position of a FEN or EPD file, one position per line, on a pool of worker threads. The file is memory-mapped
+// and cut into chunks of whole lines; each worker parses the lines of a chunk into one Board that it resets for every line, and
+// formats its results into a buffer of its own. Chunks are written to the output in file order, and at most two per thread are in
+// flight at a time, so memory stays bounded however large the file is.
+// Every position gives one output line: the input line, a tab, and the result, which starts with "invalid:" when the line cannot be used.
+// Empty lines and lines starting with '#' are skipped.
+public class FENBatch {
+    public enum Task {
+        // Checks that the FEN is well formed, that each side has one king, and that the side not to move is not in check.
+        Validate,
+        // Counts the legal move paths to the given depth (see Perft), so depth 1 counts the legal moves.
+        Perft,
+        // Searches to the given depth and reports the best move and score.
+        Search
+    }
+
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+    private static final int SEARCH_HASH_MEGABYTES = 4;
+
+    // Totals of a run, for reporting its speed.
+    public static class Report {
+        public final long positions;
+        public final long invalidPositions;
+        public final long elapsedNanos;
+
+        public Report(long positions, long invalidPositions, long elapsedNanos) {
+            this.positions = positions;
+            this.invalidPositions = invalidPositions;
+            this.elapsedNanos = elapsedNanos;
+        }
+        public long positionsPerSecond() {
+            return (elapsedNanos == 0L) ? 0L : (long) (positions * 1e9 / elapsedNanos);
+        }
+        public String toString() {
+            return positions + " positions (" + invalidPositions + " invalid) in " + elapsedNanos / 1_000_000L + " ms, "
+                    + positionsPerSecond() + " positions/sec";
+        }
+    }
+
+    private final Task task;
+    private final int depth;
+    private final int threads;
+    private final int chunkBytes;
+    // Each worker thread keeps its board, buffers and search between chunks.
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    public FENBatch(Task task, int depth, int threads) {
+        this(task, depth, threads, DEFAULT_CHUNK_BYTES);
+    }
+    public FENBatch(Task task, int depth, int threads, int chunkBytes) {
+        if (threads < 1) throw new IllegalArgumentException("A batch needs at least one thread, but was given " + threads + ".");
+        if (chunkBytes < 1) throw new IllegalArgumentException("Chunks must be at least 1 byte, but was given " + chunkBytes + ".");
+        if (task != Task.Validate && depth < 1) throw new IllegalArgumentException("Task " + task + " needs a depth of at least 1, but was given " + depth + ".");
+        this.task = task;
+        this.depth = depth;
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /*
+    Method Tested in FENBatchTest.java
+    Description: This method runs the task over every position of the file and writes one result line per position, in file order.
+    Parameters: input(Path) -> the FEN or EPD file, with one position per line. EPD lines, which have no move counters, are read with
+                               a half move clock of 0 and full move number 1, and their operations are ignored.
+                output(OutputStream) -> where the results are written; it is not closed
+    Returns: the number of positions, how many of them were invalid, and the time taken.
+    Examples: refer to test method.
+     */
+    public Report run(Path input, OutputStream output) throws IOException {
+        long start = System.nanoTime();
+        long positions = 0L;
+        long invalidPositions = 0L;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "fen-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            MappedFile file = new MappedFile(input);
+            ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+            long chunkStart = 0L;
+            while (chunkStart < file.size() || !inFlight.isEmpty()) {
+                while (chunkStart < file.size() && inFlight.size() < threads * CHUNKS_IN_FLIGHT_PER_THREAD) {
+                    long chunkEnd = file.lineEndAfter(Math.min(file.size(), chunkStart + chunkBytes));
+                    long from = chunkStart;
+                    inFlight.add(pool.submit(() -> workers.get().process(file, from, chunkEnd)));
+                    chunkStart = chunkEnd;
+                }
+                Chunk chunk = waitFor(inFlight.poll());
+                output.write(chunk.output, 0, chunk.length);
+                positions += chunk.positions;
+                invalidPositions += chunk.invalidPositions;
+            }
+            output.flush();
+        }
+        finally {
+            pool.shutdownNow();
+        }
+        return new Report(positions, invalidPositions, System.nanoTime() - start);
+    }
+
+    private static Chunk waitFor(Future<Chunk> chunk) throws IOException {
+        try {
+            return chunk.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a chunk.", e);
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("FEN batch worker failed.", e.getCause());
+        }
+    }
+
+    private static class Chunk {
+        // The result lines as ASCII; unlike a ByteArrayOutputStream, appending to it takes no lock.
+        byte[] output = new byte[1024];
+        int length;
+        long positions;
+        long invalidPositions;
+
+        void append(CharSequence text) {
+            if (output.length - length < text.length()) output = Arrays.copyOf(output, Math.max(output.length * 2, length + text.length()));
+            for (int i = 0; i < text.length(); i++) {
+                output[length++] = (byte) text.charAt(i);
+            }
+        }
+    }
+
+    private class Worker {
+        private final Board board = new Board();
+        private final StringBuilder line = new StringBuilder();
+        private final StringBuilder FEN = new StringBuilder();
+        private final StringBuilder result = new StringBuilder();
+        private final Search search = (task == Task.Search) ? new Search(new TranspositionTable(SEARCH_HASH_MEGABYTES)) : null;
+
+        Chunk process(MappedFile file, long start, long end) {
+            Chunk chunk = new Chunk();
+            long offset = start;
+            while (offset < end) {
+                line.setLength(0);
+                // The file is read as ASCII, which FEN and EPD are.
+                for (byte b; offset < end && (b = file.get(offset++)) != '\n'; ) {
+                    line.append((char) (b & 0xFF));
+                }
+                int length = line.length();
+                while (length > 0 && Character.isWhitespace(line.charAt(length - 1))) length--;
+                line.setLength(length);
+                if (length == 0 || line.charAt(0) == '#') continue;
+                result.setLength(0);
+                try {
+                    board.reset(toFEN(line));
+                    String error = board.getExceptionMessageForPositionValidityIfExists();
+                    if (error != null) throw new IllegalArgumentException(error);
+                    runTask();
+                }
+                catch (IllegalArgumentException e) {
+                    result.setLength(0);
+                    result.append("invalid: ").append(e.getMessage());
+                    chunk.invalidPositions++;
+                }
+                chunk.positions++;
+                line.append('\t').append(result).append('\n');
+                chunk.append(line);
+            }
+            return chunk;
+        }
+        // A FEN line is used as it is; an EPD line has only the first four fields, followed by operations, so move counters are added.
+        // The fields are copied into a reused buffer, which the board reads without it ever becoming a String.
+        private CharSequence toFEN(CharSequence line) {
+            FEN.setLength(0);
+            int fields = 0;
+            int fourthFieldEnd = 0;
+            boolean hasCounters = true;
+            for (int i = 0; i < line.length() && fields < 6; ) {
+                while (i < line.length() && line.charAt(i) == ' ') i++;
+                if (i == line.length()) break;
+                if (fields > 0) FEN.append(' ');
+                int start = i;
+                while (i < line.length() && line.charAt(i) != ' ') FEN.append(line.charAt(i++));
+                fields++;
+                if (fields == 4) fourthFieldEnd = FEN.length();
+                if (fields > 4) hasCounters &= isNumber(line, start, i);
+            }
+            if (fields < 6 || !hasCounters) {
+                if (fields >= 4) FEN.setLength(fourthFieldEnd);
+                FEN.append(" 0 1");
+            }
+            return FEN;
+        }
+        private void runTask() {
+            switch (task) {
+                case Validate -> result.append("ok");
+                case Perft -> result.append(Perft.perft(board, depth));
+                case Search -> {
+                    Search.Result searchResult = search.search(board, Search.Limits.depth(depth));
+                    if (searchResult.principalVariation.length == 0) {
+                        result.append("bestmove 0000");
+                    }
+                    else {
+                        result.append("bestmove ").append(Move.encodedToString(searchResult.principalVariation[0]));
+                    }
+                    if (searchResult.isMate()) {
+                        result.append(" score mate ").append(searchResult.mateIn());
+                    }
+                    else {
+                        result.append(" score cp ").append(searchResult.score);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isNumber(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') return false;
+        }
+        return start < end;
+    }
+
+    // Usage: FENBatch <file> [task] [depth] [threads]     runs the task (validate, perft or search; default validate, depth 1, one
+    //                                                     thread per core) and writes the results to standard output
+    //        FENBatch scaling <file> [task] [depth] [maxThreads]
+    //                                                     runs the task with 1, 2, 4, ... up to maxThreads threads, discarding the
+    //                                                     results, and prints the speed and speedup of each against one thread
+    // The report goes to standard error, so that it does not mix with the results.
+    public static void main(String[] args) throws IOException {
+        boolean isScaling = args.length > 0 && args[0].equals("scaling");
+        String[] rest = isScaling ? Arrays.copyOfRange(args, 1, args.length) : args;
+        if (rest.length < 1) {
+            System.err.println("Usage: FENBatch [scaling] <file> [validate|perft|search] [depth] [threads]");
+            return;
+        }
+        Path input = Path.of(rest[0]);
+        Task task = (rest.length > 1) ? parseTask(rest[1]) : Task.Validate;
+        int depth = (rest.length > 2) ? Integer.parseInt(rest[2]) : 1;
+        int maxThreads = (rest.length > 3) ? Integer.parseInt(rest[3]) : Runtime.getRuntime().availableProcessors();
+        if (!isScaling) {
+            System.err.println(new FENBatch(task, depth, maxThreads).run(input, System.out));
+            return;
+        }
+        long singleThreadSpeed = 0L;
+        for (int threads = 1; threads <= maxThreads; threads = (threads * 2 > maxThreads && threads < maxThreads) ? maxThreads : threads * 2) {
+            Report report = new FENBatch(task, depth, threads).run(input, OutputStream.nullOutputStream());
+            if (threads == 1) singleThreadSpeed = Math.max(report.positionsPerSecond(), 1L);
+            System.err.printf("threads %2d: %s, speedup %.2f%n", threads, report, (double) report.positionsPerSecond() / singleThreadSpeed);
+        }
+    }
+    private static Task parseTask(String name) {
+        for (Task task : Task.values()) {
+            if (task.name().equalsIgnoreCase(name)) return task;
+        }
+        throw new IllegalArgumentException("Unknown task " + name + ", expected validate, perft or search.");
+    }
+}
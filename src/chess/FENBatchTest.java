@@ -0,0 +1,60 @@
+package chess;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class FENBatchTest {
+    private static final String KIWIPETE_EPD = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - bm e2a6; id \"kiwipete\";";
+    private static final String NO_KINGS = "8/8/8/8/8/8/8/8 w - - 0 1";
+    private static final String TOO_FEW_RANKS = "rnbqkbnr/pppppppp/8/8 w KQkq - 0 1";
+    private static final String BLACK_TO_MOVE = "4k3/8/8/8/8/8/8/R3K3 b Q - 3 20";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRun() throws IOException {
+        Path input = folder.newFile("positions.epd").toPath();
+        Files.writeString(input, "# FENs, EPDs and mistakes\n" + Board.STARTING_BOARD_FEN + "\n" + KIWIPETE_EPD + "\n\n" + NO_KINGS + "\n"
+                + TOO_FEW_RANKS + "\n" + BLACK_TO_MOVE + "\r\n", StandardCharsets.US_ASCII);
+        // Test that every position gets a result line, in file order, and that invalid lines are reported and counted.
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        FENBatch.Report report = new FENBatch(FENBatch.Task.Perft, 1, 1).run(input, output);
+        String[] lines = output.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals(5, lines.length);
+        assertEquals(Board.STARTING_BOARD_FEN + "\t20", lines[0]);
+        assertEquals(KIWIPETE_EPD + "\t48", lines[1]);
+        assertEquals(NO_KINGS + "\tinvalid: White has 0 kings, but should have 1.", lines[2]);
+        assertTrue(lines[3].startsWith(TOO_FEW_RANKS + "\tinvalid: "));
+        assertEquals(BLACK_TO_MOVE + "\t5", lines[4]);
+        assertEquals(5L, report.positions);
+        assertEquals(2L, report.invalidPositions);
+        // Test that chunks much smaller than a line, spread over several threads, give the same output.
+        ByteArrayOutputStream chunkedOutput = new ByteArrayOutputStream();
+        report = new FENBatch(FENBatch.Task.Perft, 1, 3, 16).run(input, chunkedOutput);
+        assertEquals(output.toString(StandardCharsets.US_ASCII), chunkedOutput.toString(StandardCharsets.US_ASCII));
+        assertEquals(5L, report.positions);
+        // Test that validation and search report their own results.
+        output.reset();
+        new FENBatch(FENBatch.Task.Validate, 0, 2).run(input, output);
+        assertTrue(output.toString(StandardCharsets.US_ASCII).startsWith(Board.STARTING_BOARD_FEN + "\tok\n" + KIWIPETE_EPD + "\tok\n"));
+        Files.writeString(input, "6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", StandardCharsets.US_ASCII);
+        output.reset();
+        new FENBatch(FENBatch.Task.Search, 2, 2).run(input, output);
+        assertEquals("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1\tbestmove a1a8 score mate 1\n", output.toString(StandardCharsets.US_ASCII));
+        // Test that an empty file has no positions.
+        Files.writeString(input, "", StandardCharsets.US_ASCII);
+        assertEquals(0L, new FENBatch(FENBatch.Task.Validate, 0, 2).run(input, output).positions);
+        assertThrows(IllegalArgumentException.class, () -> new FENBatch(FENBatch.Task.Perft, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new FENBatch(FENBatch.Task.Validate, 0, 0));
+    }
+}
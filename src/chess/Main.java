@@ -0,0 +1,10 @@
+package chess;
+
+import java.io.IOException;
+
+public class Main {
+    // Runs the engine as a UCI engine on standard input and output; see UciEngine.
+    public static void main(String[] args) throws IOException {
+        new UciEngine(System.in, System.out).run();
+    }
+}
@@ -0,0 +1,48 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// A read-only memory mapping of a whole file, for the batch readers that go through large files in parallel and the opening book. A
+// single mapping cannot be larger than Integer.MAX_VALUE bytes, so the file is mapped in regions of 1 GB and read by absolute
+// offset. Absolute reads do not touch the position of the buffers, so any number of threads can read the same mapping. The mapping
+// stays valid after the file channel is closed, until it is garbage collected.
+class MappedFile {
+    private static final int REGION_SHIFT = 30;
+    private static final long REGION_MASK = (1L << REGION_SHIFT) - 1;
+
+    private final long size;
+    private final MappedByteBuffer[] regions;
+
+    MappedFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.size = channel.size();
+            this.regions = new MappedByteBuffer[(int) ((size + REGION_MASK) >>> REGION_SHIFT)];
+            for (int i = 0; i < regions.length; i++) {
+                long regionStart = (long) i << REGION_SHIFT;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, Math.min(REGION_MASK + 1, size - regionStart));
+            }
+        }
+    }
+
+    long size() {
+        return size;
+    }
+    byte get(long offset) {
+        return regions[(int) (offset >>> REGION_SHIFT)].get((int) (offset & REGION_MASK));
+    }
+    // The big-endian long at offset, which must not cross a 1 GB boundary; records aligned to their size never do.
+    long getLong(long offset) {
+        return regions[(int) (offset >>> REGION_SHIFT)].getLong((int) (offset & REGION_MASK));
+    }
+    // The offset just past the end of the line that contains offset - 1, or the end of the file.
+    long lineEndAfter(long offset) {
+        while (offset < size && get(offset - 1) != '\n') {
+            offset++;
+        }
+        return offset;
+    }
+}
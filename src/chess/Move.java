@@ -0,0 +1,75 @@
+package chess;
+
+public class Move {
+    // Moves can also be packed into an int, which is what the move generator produces:
+    // bits 0-5 origin square, 6-11 target square, 12-14 promotion piece type (0 for none), 15-18 flags.
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PAWN_PUSH = 1 << 16;
+    public static final int EN_PASSANT = 1 << 17;
+    public static final int CASTLING = 1 << 18;
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    public final Position origin;
+    public final Position target;
+    // The piece a pawn is promoted to, or Empty if the move is not a promotion.
+    public final PieceType promotion;
+    // The move packed without flags (see encode), which fits in 16 bits. Two moves are equal exactly when their packed values are,
+    // so it serves as both the hash code and the equality check.
+    private final int packed;
+    public Move(Position origin, Position target) {
+        this(origin, target, PieceType.Empty);
+    }
+    public Move(Position origin, Position target, PieceType promotion) {
+        this.origin = origin;
+        this.target = target;
+        this.promotion = promotion;
+        this.packed = encode(Bitboard.squareIndex(origin), Bitboard.squareIndex(target), promotion, 0);
+    }
+    public Move(String origin, String target) {
+        this(Position.chessPositionToPosition(origin), Position.chessPositionToPosition(target));
+    }
+    public String toString() {
+        String move = Position.positionToChessPosition(this.origin) + Position.positionToChessPosition(this.target);
+        if (this.promotion == PieceType.Empty) return move;
+        return move + Board.getCharFromPiece(this.promotion, PieceColor.Black);
+    }
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof Move other)) return false;
+        return this.packed == other.packed;
+    }
+    @Override
+    public int hashCode() {
+        return packed;
+    }
+
+    public static int encode(int origin, int target, PieceType promotion, int flags) {
+        // A king is never promoted to, so its ordinal (0) is free to stand for no promotion.
+        int promotionBits = (promotion == PieceType.Empty) ? 0 : promotion.ordinal();
+        return origin | (target << 6) | (promotionBits << 12) | flags;
+    }
+    // Flags are not stored in Move objects, so they are left empty here; Board.makeMove works them out from the board.
+    public static int encode(Move move) {
+        return move.packed;
+    }
+    public static Move decode(int move) {
+        return new Move(Bitboard.positionOf(getOrigin(move)), Bitboard.positionOf(getTarget(move)), getPromotion(move));
+    }
+    public static int getOrigin(int move) {
+        return move & 0x3F;
+    }
+    public static int getTarget(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+    public static PieceType getPromotion(int move) {
+        int promotionBits = (move >>> 12) & 0x7;
+        return (promotionBits == 0) ? PieceType.Empty : PIECE_TYPES[promotionBits];
+    }
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+    public static String encodedToString(int move) {
+        return decode(move).toString();
+    }
+}
@@ -0,0 +1,7 @@
+package chess;
+
+// Which moves Board.generateLegalMoves adds. Noisy moves change the material on the board: captures, en passant and promotions,
+// including promotions without a capture. Quiet moves are all the others, castling included.
+public enum MoveKind {
+    All, Noisy, Quiet
+}
@@ -0,0 +1,65 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// A reusable list of moves packed into ints (see Move.encode), backed by an int array.
+// Callers keep one list per ply and clear it instead of allocating, so move generation does not create any objects.
+public class MoveList {
+    public static final int DEFAULT_CAPACITY = 256;
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+    public MoveList(int capacity) {
+        this.moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[size++] = move;
+    }
+    public int get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for a move list of size " + size + ".");
+        return moves[index];
+    }
+    public void swap(int i, int j) {
+        int move = get(i);
+        moves[i] = get(j);
+        moves[j] = move;
+    }
+    public int size() {
+        return size;
+    }
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    public void clear() {
+        size = 0;
+    }
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) return true;
+        }
+        return false;
+    }
+    public ArrayList<Move> toMoves() {
+        ArrayList<Move> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(Move.decode(moves[i]));
+        }
+        return list;
+    }
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) builder.append(", ");
+            builder.append(Move.encodedToString(moves[i]));
+        }
+        return builder.append("]").toString();
+    }
+}
@@ -0,0 +1,91 @@
+package chess;
+
+// The heuristics that decide in which order MovePicker hands out the moves of a node: captures and promotions by MVV-LVA (most
+// valuable victim, least valuable attacker), the two killer moves of each ply (quiet moves that caused a cutoff in a sibling node),
+// and the other quiet moves by their history (how often and how deep they have caused cutoffs anywhere in the tree). Killers and
+// history are kept in primitive arrays, one MoveOrdering per Search, so threads do not share them.
+public class MoveOrdering {
+    // History scores stay below this; the whole table is halved when a score would pass it.
+    public static final int HISTORY_LIMIT = 1 << 20;
+
+    // Indexed by PieceType ordinal: King, Queen, Rook, Bishop, Knight, Pawn. A king is never captured, but is the worst attacker.
+    private static final int[] VALUE_RANKS = {6, 5, 4, 3, 3, 1};
+    // Indexed by [victim type][attacker type]; every victim ranks above any attacker, so a pawn taking a queen comes first.
+    private static final int[][] MVV_LVA = new int[PieceType.values().length][PieceType.values().length];
+    static {
+        for (int victim = 0; victim < VALUE_RANKS.length; victim++) {
+            for (int attacker = 0; attacker < VALUE_RANKS.length; attacker++) {
+                MVV_LVA[victim][attacker] = VALUE_RANKS[victim] * 8 - VALUE_RANKS[attacker];
+            }
+        }
+    }
+
+    private final int[][] killers = new int[Search.MAX_PLY + 1][2];
+    // The butterfly table, indexed by [PieceColor ordinal][origin * 64 + target].
+    private final int[][] history = new int[2][Bitboard.SQUARE_COUNT * Bitboard.SQUARE_COUNT];
+
+    // The MVV-LVA score of a capture or promotion; a promotion gains the promoted piece, less the pawn.
+    public static int captureScore(Board board, int move) {
+        int attacker = board.getPieceAt(Move.getOrigin(move)) % Board.PIECE_KINDS;
+        int score = 0;
+        if (Move.hasFlag(move, Move.EN_PASSANT)) {
+            score = MVV_LVA[PieceType.Pawn.ordinal()][attacker];
+        }
+        else if (Move.hasFlag(move, Move.CAPTURE)) {
+            score = MVV_LVA[board.getPieceAt(Move.getTarget(move)) % Board.PIECE_KINDS][attacker];
+        }
+        PieceType promotion = Move.getPromotion(move);
+        if (promotion != PieceType.Empty) score += MVV_LVA[promotion.ordinal()][attacker] - MVV_LVA[PieceType.Pawn.ordinal()][attacker];
+        return score;
+    }
+    // A capture or promotion loses material when the exchange it starts on the target square does (see Board.see). Capturing a
+    // piece at least as valuable as the capturing one never does, so the exchange is only worked out for the others.
+    public static boolean isLosingCapture(Board board, int move) {
+        int attacker = board.getPieceAt(Move.getOrigin(move)) % Board.PIECE_KINDS;
+        int target = board.getPieceAt(Move.getTarget(move));
+        if (target != Board.EMPTY_SQUARE && Board.SEE_VALUES[target % Board.PIECE_KINDS] >= Board.SEE_VALUES[attacker]) return false;
+        return board.see(move) < 0;
+    }
+
+    // Called when a quiet move causes a beta cutoff, so that it is tried early in sibling nodes and wherever else it is legal.
+    public void recordCutoff(PieceColor color, int move, int depth, int ply) {
+        if (move != killers[ply][0]) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int[] colorHistory = history[color.ordinal()];
+        int index = butterflyIndex(move);
+        colorHistory[index] += depth * depth;
+        if (colorHistory[index] >= HISTORY_LIMIT) ageHistory();
+    }
+    // Called before every search: killers only make sense for the tree they were found in, while history is kept but made less important.
+    public void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = 0;
+            plyKillers[1] = 0;
+        }
+        ageHistory();
+    }
+    public int getKiller(int ply, int slot) {
+        return killers[ply][slot];
+    }
+    public int getHistory(PieceColor color, int move) {
+        return history[color.ordinal()][butterflyIndex(move)];
+    }
+
+    // Captures, en passant and promotions are ordered by what they win; every other move is quiet.
+    public static boolean isQuiet(int move) {
+        return !Move.hasFlag(move, Move.CAPTURE) && Move.getPromotion(move) == PieceType.Empty;
+    }
+
+    private void ageHistory() {
+        for (int[] colorHistory : history) {
+            for (int i = 0; i < colorHistory.length; i++) {
+                colorHistory[i] >>= 1;
+            }
+        }
+    }
+    private static int butterflyIndex(int move) {
+        return Move.getOrigin(move) * Bitboard.SQUARE_COUNT + Move.getTarget(move);
+    }
+}
@@ -0,0 +1,47 @@
+package chess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveOrderingTest {
+    @Test
+    public void testKillersAndHistory() {
+        MoveOrdering ordering = new MoveOrdering();
+        int first = encode("g1", "f3"), second = encode("b1", "c3");
+        // Test that the latest killer goes first, and that the same move is not stored in both slots.
+        ordering.recordCutoff(PieceColor.White, first, 4, 2);
+        ordering.recordCutoff(PieceColor.White, first, 4, 2);
+        assertEquals(first, ordering.getKiller(2, 0));
+        assertEquals(0, ordering.getKiller(2, 1));
+        ordering.recordCutoff(PieceColor.White, second, 2, 2);
+        assertEquals(second, ordering.getKiller(2, 0));
+        assertEquals(first, ordering.getKiller(2, 1));
+        // Test that history grows with the square of the depth, for the color that made the move only.
+        assertEquals(32, ordering.getHistory(PieceColor.White, first));
+        assertEquals(4, ordering.getHistory(PieceColor.White, second));
+        assertEquals(0, ordering.getHistory(PieceColor.Black, first));
+        // Test that a new search forgets the killers and halves the history.
+        ordering.newSearch();
+        assertEquals(0, ordering.getKiller(2, 0));
+        assertEquals(16, ordering.getHistory(PieceColor.White, first));
+        // Test that history stays below the limit.
+        for (int i = 0; i < 20_000; i++) ordering.recordCutoff(PieceColor.White, first, 10, 0);
+        assertTrue(ordering.getHistory(PieceColor.White, first) < MoveOrdering.HISTORY_LIMIT);
+        // Test that captures are scored by the victim first and the attacker second, and that only captures by a more valuable piece
+        // of a less valuable one may lose material.
+        Board board = new Board("4k3/8/8/3q4/2P1p3/8/8/3RK3 w - - 0 1");
+        int pawnTakesQueen = encode("c4", "d5") | Move.CAPTURE, rookTakesQueen = encode("d1", "d5") | Move.CAPTURE;
+        assertTrue(MoveOrdering.captureScore(board, pawnTakesQueen) > MoveOrdering.captureScore(board, rookTakesQueen));
+        assertFalse(MoveOrdering.isLosingCapture(board, rookTakesQueen));
+        board = new Board("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1");
+        assertTrue(MoveOrdering.isLosingCapture(board, encode("e1", "e5") | Move.CAPTURE));
+        // Test that captures and promotions are not quiet.
+        assertTrue(MoveOrdering.isQuiet(first));
+        assertFalse(MoveOrdering.isQuiet(first | Move.CAPTURE));
+        assertFalse(MoveOrdering.isQuiet(Move.encode(new Move(Position.of("a7"), Position.of("a8"), PieceType.Queen))));
+    }
+    private static int encode(String origin, String target) {
+        return Move.encode(new Move(origin, target));
+    }
+}
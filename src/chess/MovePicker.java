@@ -0,0 +1,181 @@
+package chess;
+
+// Hands out the legal moves of a node one at a time, in stages, generating each stage only when the one before it is used up:
+// the hash move, captures and promotions that do not lose material by static exchange evaluation (in MVV-LVA order), the killer
+// moves, the quiet moves (by history), and last the captures that lose material. Most nodes that cut off do so on the hash move or a good capture, and never pay
+// for generating or scoring the quiet moves. The hash move and killers are checked by generating the moves of their piece only.
+// A search keeps one picker per ply and resets it for every node, so picking moves does not allocate.
+public class MovePicker {
+    private static final int HASH_MOVE = 0, GENERATE_NOISY = 1, GOOD_NOISY = 2, FIRST_KILLER = 3, SECOND_KILLER = 4,
+            GENERATE_QUIET = 5, QUIET = 6, BAD_NOISY = 7, GENERATE_ALL = 8, ALL = 9, DONE = 10;
+    // The transposition table does not store the flags of a move (see TranspositionTable), so moves are compared to it without them.
+    private static final int HASH_MOVE_MASK = Move.CAPTURE - 1;
+
+    private final MoveOrdering ordering;
+    private final MoveList moves = new MoveList();
+    private int[] scores = new int[MoveList.DEFAULT_CAPACITY];
+    private final MoveList badNoisyMoves = new MoveList();
+    // For checking the hash move and the killers, which may come from another position.
+    private final MoveList pieceMoves = new MoveList();
+    private Board board;
+    private PieceColor sideToMove;
+    private boolean isOrdered;
+    private boolean isNoisyOnly;
+    private int stage;
+    private int index;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+
+    public MovePicker(MoveOrdering ordering) {
+        this.ordering = ordering;
+    }
+
+    /*
+    Method Tested in MovePickerTest.java
+    Description: This method starts picking the moves of a new node, in stages.
+    Parameters: board(Board) -> the position, which must not change while its moves are picked, except by moves that are taken back
+                hashMove(int) -> the move stored in the transposition table for the position, with or without its flags, or 0 if there is none
+                ply(int) -> the distance from the root, which selects the killer moves
+    Returns: nothing.
+    Examples: refer to test method.
+     */
+    public void reset(Board board, int hashMove, int ply) {
+        start(board, true, false);
+        this.hashMove = toLegalMove(hashMove);
+        this.firstKiller = ordering.getKiller(ply, 0);
+        this.secondKiller = ordering.getKiller(ply, 1);
+    }
+    // Picks every move in the order it is generated, except that firstMove, if legal, comes first. For measuring what ordering saves.
+    public void resetUnordered(Board board, int firstMove) {
+        start(board, false, false);
+        this.hashMove = toLegalMove(firstMove);
+        this.firstKiller = 0;
+        this.secondKiller = 0;
+    }
+    // Picks only the captures and promotions that do not lose material, for the quiescence search.
+    public void resetNoisy(Board board) {
+        start(board, true, true);
+        this.hashMove = 0;
+        this.firstKiller = 0;
+        this.secondKiller = 0;
+    }
+
+    // Returns the next move, or 0 when there are no more.
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case HASH_MOVE:
+                    stage = isOrdered ? GENERATE_NOISY : GENERATE_ALL;
+                    if (hashMove != 0) return hashMove;
+                    break;
+                case GENERATE_NOISY:
+                    generate(MoveKind.Noisy);
+                    for (int i = 0; i < moves.size(); i++) {
+                        scores[i] = MoveOrdering.captureScore(board, moves.get(i));
+                    }
+                    stage = GOOD_NOISY;
+                    break;
+                case GOOD_NOISY:
+                    while (index < moves.size()) {
+                        int move = pickBest();
+                        if (move == hashMove) continue;
+                        if (MoveOrdering.isLosingCapture(board, move)) {
+                            badNoisyMoves.add(move);
+                            continue;
+                        }
+                        return move;
+                    }
+                    stage = isNoisyOnly ? DONE : FIRST_KILLER;
+                    break;
+                case FIRST_KILLER:
+                    stage = SECOND_KILLER;
+                    if (firstKiller != 0 && firstKiller != hashMove && toLegalMove(firstKiller) == firstKiller) return firstKiller;
+                    firstKiller = 0;
+                    break;
+                case SECOND_KILLER:
+                    stage = GENERATE_QUIET;
+                    if (secondKiller != 0 && secondKiller != hashMove && toLegalMove(secondKiller) == secondKiller) return secondKiller;
+                    secondKiller = 0;
+                    break;
+                case GENERATE_QUIET:
+                    generate(MoveKind.Quiet);
+                    for (int i = 0; i < moves.size(); i++) {
+                        scores[i] = ordering.getHistory(sideToMove, moves.get(i));
+                    }
+                    stage = QUIET;
+                    break;
+                case QUIET:
+                    while (index < moves.size()) {
+                        int move = pickBest();
+                        if (move != hashMove && move != firstKiller && move != secondKiller) return move;
+                    }
+                    stage = BAD_NOISY;
+                    index = 0;
+                    break;
+                case BAD_NOISY:
+                    // Already in MVV-LVA order, since they were set aside in the order they were picked.
+                    if (index < badNoisyMoves.size()) return badNoisyMoves.get(index++);
+                    stage = DONE;
+                    break;
+                case GENERATE_ALL:
+                    generate(MoveKind.All);
+                    stage = ALL;
+                    break;
+                case ALL:
+                    while (index < moves.size()) {
+                        int move = moves.get(index++);
+                        if (move != hashMove) return move;
+                    }
+                    stage = DONE;
+                    break;
+                default:
+                    return 0;
+            }
+        }
+    }
+
+    private void start(Board board, boolean isOrdered, boolean isNoisyOnly) {
+        this.board = board;
+        this.sideToMove = board.getToMove();
+        this.isOrdered = isOrdered;
+        this.isNoisyOnly = isNoisyOnly;
+        this.stage = HASH_MOVE;
+        this.moves.clear();
+        this.badNoisyMoves.clear();
+        this.index = 0;
+    }
+    private void generate(MoveKind kind) {
+        moves.clear();
+        index = 0;
+        board.generateLegalMoves(sideToMove, moves, kind);
+        if (scores.length < moves.size()) scores = new int[moves.size()];
+    }
+    // Moves the best scored of the remaining moves to the front of them, and returns it.
+    private int pickBest() {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) best = i;
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = scores[index];
+            scores[index] = scores[best];
+            scores[best] = score;
+        }
+        return moves.get(index++);
+    }
+    // The legal move of the side to move that matches the given move without its flags, or 0 if there is none.
+    private int toLegalMove(int move) {
+        if (move == 0) return 0;
+        int origin = Move.getOrigin(move);
+        int piece = board.getPieceAt(origin);
+        if (piece == Board.EMPTY_SQUARE || Board.getPieceColorFromIndex(piece) != sideToMove) return 0;
+        pieceMoves.clear();
+        board.generateLegalMoves(sideToMove, pieceMoves, MoveKind.All, Bitboard.squareMask(origin));
+        for (int i = 0; i < pieceMoves.size(); i++) {
+            if ((pieceMoves.get(i) & HASH_MOVE_MASK) == (move & HASH_MOVE_MASK)) return pieceMoves.get(i);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,74 @@
+package chess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MovePickerTest {
+    @Test
+    public void testNext() {
+        Board board = new Board("4k3/8/8/3q4/2P1p3/8/8/3RK3 w - - 0 1");
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.recordCutoff(PieceColor.White, encode("d1", "d2"), 1, 0);
+        ordering.recordCutoff(PieceColor.White, encode("e1", "f1"), 5, 3);
+        MovePicker picker = new MovePicker(ordering);
+        // Test that the hash move comes first, then the captures with the most valuable victim and least valuable attacker first,
+        // then the killer of the ply, then the quiet move with the most history.
+        picker.reset(board, encode("e1", "f2"), 0);
+        String[] expected = {"e1f2", "c4d5", "d1d5", "d1d2", "e1f1"};
+        for (String move : expected) {
+            assertEquals(encode(move.substring(0, 2), move.substring(2)), picker.next() & (Move.CAPTURE - 1));
+        }
+        picker.reset(board, encode("e1", "f2"), 0);
+        assertPicksEveryMoveOnce(board, picker);
+        // Test that a capture that may lose material comes after the quiet moves.
+        board = new Board("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1");
+        picker.reset(board, 0, 1);
+        int move, last = 0;
+        while ((move = picker.next()) != 0) last = move;
+        assertEquals(encode("e1", "e5") | Move.CAPTURE, last);
+    }
+    @Test
+    public void testIllegalHashMoveAndKillers() {
+        // Test that a hash move or killer from another position is skipped, and that every legal move is still picked exactly once,
+        // with or without ordering.
+        MoveOrdering ordering = new MoveOrdering();
+        ordering.recordCutoff(PieceColor.White, encode("e1", "g1") | Move.CASTLING, 3, 0);
+        ordering.recordCutoff(PieceColor.White, encode("a2", "a4") | Move.DOUBLE_PAWN_PUSH, 3, 0);
+        ordering.recordCutoff(PieceColor.White, encode("h1", "h8"), 3, 1);
+        MovePicker picker = new MovePicker(ordering);
+        for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) {
+            Board board = new Board(position.FEN);
+            for (int ply = 0; ply < 2; ply++) {
+                for (int hashMove : new int[]{0, encode("e2", "a6"), encode("a1", "a8"), encode("d5", "e6")}) {
+                    picker.reset(board, hashMove, ply);
+                    assertPicksEveryMoveOnce(board, picker);
+                    picker.resetUnordered(board, hashMove);
+                    assertPicksEveryMoveOnce(board, picker);
+                }
+            }
+        }
+        // Test that the hash move is handed out with the flags of the legal move.
+        Board board = new Board(Perft.STANDARD_POSITIONS.get(1).FEN);
+        picker.reset(board, encode("e2", "a6"), 0);
+        assertEquals(encode("e2", "a6") | Move.CAPTURE, picker.next());
+    }
+    // Picks every move of a picker that was just reset, and checks that they are the legal moves, each once.
+    private static void assertPicksEveryMoveOnce(Board board, MovePicker picker) {
+        MoveList legal = new MoveList();
+        board.generateLegalMoves(board.getToMove(), legal);
+        MoveList picked = new MoveList();
+        for (int move = picker.next(); move != 0; move = picker.next()) {
+            assertFalse(Move.encodedToString(move) + " was picked twice in " + board.getFEN(), picked.contains(move));
+            picked.add(move);
+        }
+        assertEquals(board.getFEN(), legal.size(), picked.size());
+        for (int i = 0; i < picked.size(); i++) {
+            assertTrue(legal.contains(picked.get(i)));
+        }
+        assertEquals(0, picker.next());
+    }
+    private static int encode(String origin, String target) {
+        return Move.encode(new Move(origin, target));
+    }
+}
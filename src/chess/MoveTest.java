@@ -0,0 +1,48 @@
+package chess;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class MoveTest {
+    @Test
+    public void testToString() {
+        // Test that moves are written in UCI notation, with the promotion piece in lowercase.
+        assertEquals("e2e4", new Move("e2", "e4").toString());
+        assertEquals("e7e8q", new Move(Position.of("e7"), Position.of("e8"), PieceType.Queen).toString());
+    }
+    @Test
+    public void testEqualsAndHashCode() {
+        // Test that equal moves have equal hash codes, and that the promotion piece is part of the move.
+        Move move = new Move("e2", "e4");
+        assertEquals(new Move(new Position("e2"), new Position("e4")), move);
+        assertEquals(new Move(new Position("e2"), new Position("e4")).hashCode(), move.hashCode());
+        assertNotEquals(new Move("e4", "e2"), move);
+        assertNotEquals(new Move(Position.of("b7"), Position.of("b8"), PieceType.Queen), new Move(Position.of("b7"), Position.of("b8"), PieceType.Knight));
+        HashSet<Move> moves = new HashSet<>();
+        moves.add(move);
+        moves.add(new Move("e2", "e4"));
+        assertEquals(1, moves.size());
+        HashMap<Move, Integer> scores = new HashMap<>();
+        scores.put(new Move("g1", "f3"), 10);
+        assertEquals(Integer.valueOf(10), scores.get(new Move("g1", "f3")));
+    }
+    @Test
+    public void testEncode() {
+        // Test that a move survives packing into an int, and that flags do not change which move is decoded.
+        Move promotion = new Move(Position.of("a7"), Position.of("b8"), PieceType.Knight);
+        int encoded = Move.encode(promotion);
+        assertEquals(Bitboard.squareIndex(Position.of("a7")), Move.getOrigin(encoded));
+        assertEquals(Bitboard.squareIndex(Position.of("b8")), Move.getTarget(encoded));
+        assertEquals(PieceType.Knight, Move.getPromotion(encoded));
+        assertEquals(promotion, Move.decode(encoded));
+        assertEquals(promotion, Move.decode(encoded | Move.CAPTURE));
+        assertTrue(Move.hasFlag(encoded | Move.CAPTURE, Move.CAPTURE));
+        assertFalse(Move.hasFlag(encoded, Move.CAPTURE));
+        // Test that the flagless encoding fits in 16 bits.
+        assertEquals(0, Move.encode(new Move(Position.of("h7"), Position.of("h8"), PieceType.Pawn)) >>> 16);
+    }
+}
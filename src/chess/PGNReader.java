@@ -0,0 +1,360 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+// Reads the games of a PGN file and replays them. The file is memory-mapped and cut into chunks of whole games, which worker threads
+// read in parallel: each worker tokenizes its chunk straight from the mapping, resolves every move (see SAN) on one Board that it
+// resets for each game, plays it with makeMove, and hands each finished game to the callback. Comments, variations, NAGs and move
+// numbers are skipped. A new chunk starts at a tag line that follows a blank line, which is where the export format starts a game.
+public class PGNReader {
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+    // A game as read. Each worker reuses one Game for all of its games, so a Game is only valid during the callback, on the
+    // worker's thread; anything to keep must be copied out.
+    public static class Game {
+        private final Map<String, String> tags = new LinkedHashMap<>();
+        private final MoveList moves = new MoveList();
+        private final Board board = new Board();
+        private String result;
+        private String error;
+        private long offset;
+
+        public Map<String, String> getTags() {
+            return Collections.unmodifiableMap(tags);
+        }
+        public String getTag(String name) {
+            return tags.get(name);
+        }
+        // The moves played, packed as in Move.encode, up to the first move that could not be read.
+        public MoveList getMoves() {
+            return moves;
+        }
+        // The position after the moves.
+        public Board getBoard() {
+            return board;
+        }
+        // The result at the end of the movetext: 1-0, 0-1, 1/2-1/2 or *, or null if there was none.
+        public String getResult() {
+            return result;
+        }
+        // Why the game could not be replayed to its end, or null if it could.
+        public String getError() {
+            return error;
+        }
+        // Where in the file the game starts, in bytes.
+        public long getOffset() {
+            return offset;
+        }
+    }
+
+    // Totals of a run, for reporting its speed.
+    public static class Report {
+        public final long games;
+        public final long moves;
+        public final long gamesWithErrors;
+        public final long elapsedNanos;
+
+        public Report(long games, long moves, long gamesWithErrors, long elapsedNanos) {
+            this.games = games;
+            this.moves = moves;
+            this.gamesWithErrors = gamesWithErrors;
+            this.elapsedNanos = elapsedNanos;
+        }
+        public long movesPerSecond() {
+            return (elapsedNanos == 0L) ? 0L : (long) (moves * 1e9 / elapsedNanos);
+        }
+        public String toString() {
+            return games + " games (" + gamesWithErrors + " with errors), " + moves + " moves in " + elapsedNanos / 1_000_000L + " ms, "
+                    + movesPerSecond() + " moves/sec";
+        }
+    }
+
+    private final int threads;
+    private final int chunkBytes;
+    // Each worker thread keeps its game, board and buffers between chunks.
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+
+    public PGNReader(int threads) {
+        this(threads, DEFAULT_CHUNK_BYTES);
+    }
+    public PGNReader(int threads, int chunkBytes) {
+        if (threads < 1) throw new IllegalArgumentException("A reader needs at least one thread, but was given " + threads + ".");
+        if (chunkBytes < 1) throw new IllegalArgumentException("Chunks must be at least 1 byte, but was given " + chunkBytes + ".");
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+    }
+
+    /*
+    Method Tested in PGNReaderTest.java
+    Description: This method reads and replays every game of the file, and hands each to the callback. Games are read in parallel,
+                 so the callback is called from several threads at once, and not in file order.
+    Parameters: input(Path) -> the PGN file, in ASCII or UTF-8
+                callback(Consumer<Game>) -> called with each game, which is only valid during the call
+    Returns: the number of games and moves, how many games had a move that could not be read, and the time taken.
+    Examples: refer to test method.
+     */
+    public Report read(Path input, Consumer<Game> callback) throws IOException {
+        long start = System.nanoTime();
+        long[] totals = new long[3];
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pgn-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            MappedFile file = new MappedFile(input);
+            ArrayDeque<Future<long[]>> inFlight = new ArrayDeque<>();
+            long chunkStart = 0L;
+            while (chunkStart < file.size() || !inFlight.isEmpty()) {
+                while (chunkStart < file.size() && inFlight.size() < threads * CHUNKS_IN_FLIGHT_PER_THREAD) {
+                    long chunkEnd = gameStartAfter(file, Math.min(file.size(), chunkStart + chunkBytes));
+                    long from = chunkStart;
+                    inFlight.add(pool.submit(() -> workers.get().read(file, from, chunkEnd, callback)));
+                    chunkStart = chunkEnd;
+                }
+                long[] chunkTotals = waitFor(inFlight.poll());
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += chunkTotals[i];
+                }
+            }
+        }
+        finally {
+            pool.shutdownNow();
+        }
+        return new Report(totals[0], totals[1], totals[2], System.nanoTime() - start);
+    }
+
+    // The start of the first line at or after offset that begins with '[' and follows a blank line, or the end of the file.
+    private static long gameStartAfter(MappedFile file, long offset) {
+        offset = file.lineEndAfter(offset);
+        boolean isAfterBlankLine = false;
+        while (offset < file.size()) {
+            if (isAfterBlankLine && file.get(offset) == '[') return offset;
+            long lineEnd = file.lineEndAfter(offset + 1);
+            isAfterBlankLine = true;
+            for (long i = offset; i < lineEnd; i++) {
+                byte b = file.get(i);
+                if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                    isAfterBlankLine = false;
+                    break;
+                }
+            }
+            offset = lineEnd;
+        }
+        return file.size();
+    }
+    private static long[] waitFor(Future<long[]> chunk) throws IOException {
+        try {
+            return chunk.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a chunk.", e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IllegalStateException("PGN reader worker failed.", e.getCause());
+        }
+    }
+
+    private static class Worker {
+        private final Game game = new Game();
+        private final MoveList scratch = new MoveList();
+        private final StringBuilder token = new StringBuilder();
+        private byte[] tagBytes = new byte[256];
+        private boolean isInGame;
+        private boolean hasMovetext;
+        private boolean isBoardSet;
+        private long[] totals;
+        private Consumer<Game> callback;
+
+        // Returns the number of games, moves and games with errors in the chunk.
+        long[] read(MappedFile file, long start, long end, Consumer<Game> callback) {
+            this.totals = new long[3];
+            this.callback = callback;
+            this.isInGame = false;
+            this.hasMovetext = false;
+            long i = start;
+            while (i < end) {
+                byte b = file.get(i);
+                if (b == ' ' || b == '\t' || b == '\r' || b == '\n') {
+                    i++;
+                }
+                else if (b == '[') {
+                    if (hasMovetext) finishGame();
+                    startGame(i);
+                    i = readTag(file, i + 1, end);
+                }
+                else if (b == '{') {
+                    while (i < end && file.get(i) != '}') i++;
+                    i++;
+                }
+                else if (b == ';' || b == '%' && (i == 0 || file.get(i - 1) == '\n')) {
+                    while (i < end && file.get(i) != '\n') i++;
+                }
+                else if (b == '(') {
+                    i = skipVariation(file, i, end);
+                }
+                else if (b == ')' || b == ']' || b == '}') {
+                    i++;
+                }
+                else {
+                    if (!isInGame) startGame(i);
+                    hasMovetext = true;
+                    i = readMovetextToken(file, i, end);
+                }
+            }
+            if (isInGame) finishGame();
+            return totals;
+        }
+
+        private void startGame(long offset) {
+            if (isInGame) return;
+            isInGame = true;
+            hasMovetext = false;
+            isBoardSet = false;
+            game.tags.clear();
+            game.moves.clear();
+            game.result = null;
+            game.error = null;
+            game.offset = offset;
+        }
+        private void finishGame() {
+            if (!isBoardSet) setUpBoard();
+            totals[0]++;
+            totals[1] += game.moves.size();
+            if (game.error != null) totals[2]++;
+            callback.accept(game);
+            isInGame = false;
+            hasMovetext = false;
+        }
+        // The game starts from the FEN tag if there is one, and from the starting position otherwise.
+        private void setUpBoard() {
+            isBoardSet = true;
+            String FEN = game.tags.getOrDefault("FEN", Board.STARTING_BOARD_FEN);
+            String exceptionMsg = game.board.getExceptionMessageForFENValidityIfExists(FEN);
+            if (exceptionMsg != null) {
+                game.error = exceptionMsg;
+                game.board.reset();
+                return;
+            }
+            game.board.reset(FEN);
+            // A well formed FEN can still be a position the move generator cannot handle, such as one without a king, so the game
+            // is kept as it was set up and its moves are not replayed.
+            game.error = game.board.getExceptionMessageForPositionValidityIfExists();
+        }
+
+        // [Name "value"], with \" and \\ escaped in the value. Returns the offset after the closing bracket.
+        private long readTag(MappedFile file, long i, long end) {
+            token.setLength(0);
+            while (i < end && file.get(i) == ' ') i++;
+            for (byte b; i < end && (b = file.get(i)) != ' ' && b != '"' && b != ']'; i++) {
+                token.append((char) b);
+            }
+            while (i < end && file.get(i) != '"' && file.get(i) != ']') i++;
+            int length = 0;
+            if (i < end && file.get(i) == '"') {
+                for (i++; i < end && file.get(i) != '"'; i++) {
+                    byte b = file.get(i);
+                    if (b == '\\' && i + 1 < end) b = file.get(++i);
+                    if (length == tagBytes.length) tagBytes = Arrays.copyOf(tagBytes, length * 2);
+                    tagBytes[length++] = b;
+                }
+            }
+            while (i < end && file.get(i) != ']' && file.get(i) != '\n') i++;
+            game.tags.put(token.toString(), new String(tagBytes, 0, length, StandardCharsets.UTF_8));
+            return i + 1;
+        }
+        // Returns the offset after the closing parenthesis, skipping comments inside, which may hold parentheses of their own.
+        private static long skipVariation(MappedFile file, long i, long end) {
+            int depth = 0;
+            for (; i < end; i++) {
+                byte b = file.get(i);
+                if (b == '(') {
+                    depth++;
+                }
+                else if (b == ')') {
+                    if (--depth == 0) return i + 1;
+                }
+                else if (b == '{') {
+                    while (i + 1 < end && file.get(i + 1) != '}') i++;
+                }
+            }
+            return end;
+        }
+        // A move number, NAG, result or move. Returns the offset after the token.
+        private long readMovetextToken(MappedFile file, long i, long end) {
+            token.setLength(0);
+            for (byte b; i < end && !isDelimiter(b = file.get(i)); i++) {
+                token.append((char) b);
+                // A move number may run straight into its move, as in 1.e4, so the dots end the token.
+                if (b == '.') {
+                    while (i + 1 < end && file.get(i + 1) == '.') i++;
+                    return i + 1;
+                }
+            }
+            // NAGs, move numbers, and annotations written apart from their move, like e4 !?, say nothing about the moves.
+            if (token.charAt(0) == '$' || token.charAt(0) == '!' || token.charAt(0) == '?' || token.charAt(token.length() - 1) == '.') return i;
+            if (isResult(token)) {
+                game.result = token.toString();
+                finishGame();
+                return i;
+            }
+            if (game.error != null) return i;
+            if (!isBoardSet) setUpBoard();
+            if (game.error != null) return i;
+            int move = SAN.parse(game.board, token, 0, token.length(), scratch);
+            if (move == 0) {
+                game.error = "\"" + token + "\" is not a legal move, or is ambiguous, after " + game.moves.size() + " plies.";
+                return i;
+            }
+            game.board.makeMove(move);
+            game.moves.add(move);
+            return i;
+        }
+        private static boolean isDelimiter(byte b) {
+            return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '{' || b == '}' || b == '(' || b == ')' || b == '[' || b == ']' || b == ';';
+        }
+        private static boolean isResult(CharSequence token) {
+            return contentEquals(token, "1-0") || contentEquals(token, "0-1") || contentEquals(token, "1/2-1/2") || contentEquals(token, "*");
+        }
+        private static boolean contentEquals(CharSequence token, String text) {
+            if (token.length() != text.length()) return false;
+            for (int i = 0; i < text.length(); i++) {
+                if (token.charAt(i) != text.charAt(i)) return false;
+            }
+            return true;
+        }
+    }
+
+    // Usage: PGNReader <file> [maxThreads]
+    // Reads the file with 1, 2, 4, ... up to maxThreads threads (default: every core), and prints the speed and speedup of each
+    // against one thread.
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PGNReader <file> [maxThreads]");
+            return;
+        }
+        Path input = Path.of(args[0]);
+        int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long singleThreadSpeed = 0L;
+        for (int threads = 1; threads <= maxThreads; threads = (threads * 2 > maxThreads && threads < maxThreads) ? maxThreads : threads * 2) {
+            Report report = new PGNReader(threads).read(input, game -> { });
+            if (threads == 1) singleThreadSpeed = Math.max(report.movesPerSecond(), 1L);
+            System.out.printf("threads %2d: %s, speedup %.2f%n", threads, report, (double) report.movesPerSecond() / singleThreadSpeed);
+        }
+    }
+}
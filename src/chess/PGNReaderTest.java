@@ -0,0 +1,100 @@
+package chess;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.*;
+
+public class PGNReaderTest {
+    private static final String PGN = """
+            [Event "Paris Opera"]
+            [White "Paul Morphy"]
+            [Black "Duke Karl / Count Isouard"]
+            [Result "1-0"]
+
+            1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3 5. Qxf3 dxe5
+            6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 c6 9. Bg5 $1 b5 (9... Qb4+ 10. Qxb4 {trades (queens)}) 10. Nxb5 cxb5
+            11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7 14. Rd1 Qe6 15. Bxd7+ Nxd7 16. Qb8+ ! Nxb8 17. Rd8# 1-0
+
+            [Event "Set up"]
+            [White "Caf\u00e9 \\"Regence\\""]
+            [SetUp "1"]
+            [FEN "4k3/1P6/8/8/8/8/8/R3K3 w Q - 0 1"]
+
+            1.O-O-O Kf7 2.b8=N Ke6 3.Nc6 Kf5 *
+
+            [Event "Mistake"]
+
+            1. e4 Nf6 2. e5 d5 3. exd6 e.p. exd6 4. Ke3 Qe7 1/2-1/2
+
+            [Event "No result"]
+
+            1. d4 d5
+            """;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRead() throws IOException {
+        Path input = folder.newFile("games.pgn").toPath();
+        Files.writeString(input, PGN, StandardCharsets.UTF_8);
+        for (int chunkBytes : new int[]{PGNReader.DEFAULT_CHUNK_BYTES, 1}) {
+            Map<String, String> finalPositions = new ConcurrentHashMap<>();
+            Map<String, String> errors = new ConcurrentHashMap<>();
+            PGNReader.Report report = new PGNReader(2, chunkBytes).read(input, game -> {
+                finalPositions.put(game.getTag("Event"), game.getBoard().getFEN() + " " + game.getMoves().size() + " " + game.getResult());
+                if (game.getError() != null) errors.put(game.getTag("Event"), game.getError());
+                if (game.getTag("FEN") != null) assertEquals("Caf\u00e9 \"Regence\"", game.getTag("White"));
+            });
+            // Test that comments, variations, NAGs and loose annotations are skipped, and that SAN is resolved in every form.
+            assertEquals("1n1Rkb1r/p4ppp/4q3/4p1B1/4P3/8/PPP2PPP/2K5 b k - 1 17 33 1-0", finalPositions.get("Paris Opera"));
+            assertEquals("8/8/2N5/5k2/8/8/8/2KR4 w - - 3 4 6 *", finalPositions.get("Set up"));
+            assertEquals("rnbqkb1r/ppp2ppp/3p1n2/8/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 4 6 1/2-1/2", finalPositions.get("Mistake"));
+            assertEquals("rnbqkbnr/ppp1pppp/8/3p4/3P4/8/PPP1PPPP/RNBQKBNR w KQkq d6 0 2 2 null", finalPositions.get("No result"));
+            // Test that a move that cannot be played stops the replay of its game, and is reported.
+            assertEquals(Map.of("Mistake", "\"Ke3\" is not a legal move, or is ambiguous, after 6 plies."), errors);
+            assertEquals(4L, report.games);
+            assertEquals(33L + 6L + 6L + 2L, report.moves);
+            assertEquals(1L, report.gamesWithErrors);
+        }
+    }
+    @Test
+    public void testPositionWithoutKing() throws IOException {
+        // Test that a FEN tag the move generator cannot play from is reported on its game, and that the games after it are still read.
+        Path input = folder.newFile("kingless.pgn").toPath();
+        Files.writeString(input, """
+                [Event "Before"]
+
+                1. e4 e5 *
+
+                [Event "No king"]
+                [SetUp "1"]
+                [FEN "8/p7/8/8/8/8/8/R5K1 w - - 0 1"]
+
+                1. Rb1 a5 2. O-O *
+
+                [Event "After"]
+
+                1. d4 d5 2. c4 *
+                """, StandardCharsets.UTF_8);
+        Map<String, Integer> moves = new ConcurrentHashMap<>();
+        Map<String, String> errors = new ConcurrentHashMap<>();
+        PGNReader.Report report = new PGNReader(1).read(input, game -> {
+            moves.put(game.getTag("Event"), game.getMoves().size());
+            if (game.getError() != null) errors.put(game.getTag("Event"), game.getError());
+        });
+        assertEquals(Map.of("Before", 2, "No king", 0, "After", 3), moves);
+        assertEquals(Map.of("No king", "Black has 0 kings, but should have 1."), errors);
+        assertEquals(3L, report.games);
+        assertEquals(1L, report.gamesWithErrors);
+    }
+}
@@ -0,0 +1,139 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Lazy SMP: every thread runs the ordinary iterative deepening search on its own copy of the board, from the same root, and the threads
+// only cooperate through the shared transposition table. Helper threads skip some depths (see Search), so while the main thread works
+// on one depth the helpers are already filling the table for the next ones, and the main thread finds more cutoffs than it would alone.
+// The main thread runs on the caller's thread and decides when the search ends; the helpers run until it sets the shared stop flag,
+// or until they reach its depth limit.
+public class ParallelSearch implements AutoCloseable {
+    private final TranspositionTable transpositionTable;
+    private final AtomicBoolean stopFlag = new AtomicBoolean();
+    private final Search[] searches;
+    private final ExecutorService helperPool;
+
+    public ParallelSearch(int threads, TranspositionTable transpositionTable) {
+        if (threads < 1) throw new IllegalArgumentException("A search needs at least one thread, but was given " + threads + ".");
+        this.transpositionTable = transpositionTable;
+        this.searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(transpositionTable, stopFlag, i);
+        }
+        this.helperPool = (threads == 1) ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() {
+        return searches.length;
+    }
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    public Search.Result search(Board board, Search.Limits limits) {
+        return search(board, limits, result -> { });
+    }
+
+    /*
+    Method Tested in ParallelSearchTest.java
+    Description: This method searches the position with every thread, and returns when the main thread reaches one of the limits
+                 or stop() is called. The node limit applies to the main thread alone; the nodes and speed that are reported count every thread.
+    Parameters: board(Board) -> the position to search, which is unchanged when the method returns; each helper searches a copy
+                limits(Search.Limits) -> the depth, node and time limits of the main thread
+                listener(Consumer<Search.Result>) -> called with each iteration the main thread finishes
+    Returns: the deepest finished iteration of any thread, preferring the main thread's.
+    Examples: refer to test method.
+     */
+    public Search.Result search(Board board, Search.Limits limits, Consumer<Search.Result> listener) {
+        stopFlag.set(false);
+        transpositionTable.newSearch();
+        List<Future<Search.Result>> helpers = new ArrayList<>(searches.length - 1);
+        // Helpers are only bound by the depth limit, so that a search to a fixed depth never reports a deeper result.
+        Search.Limits helperLimits = Search.Limits.depth(limits.depth);
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            Board copy = new Board(board);
+            helpers.add(helperPool.submit(() -> helper.search(copy, helperLimits)));
+        }
+        Search.Result best;
+        try {
+            best = searches[0].search(board, limits, result -> listener.accept(withTotalNodes(result)));
+        }
+        finally {
+            stopFlag.set(true);
+        }
+        for (Future<Search.Result> helper : helpers) {
+            Search.Result result = waitFor(helper);
+            if (best != null && result != null && result.principalVariation.length > 0 && result.depth > best.depth) best = result;
+        }
+        return (best == null) ? null : withTotalNodes(best);
+    }
+    // Asks a running search to return as soon as possible. Safe to call from any thread.
+    public void stop() {
+        stopFlag.set(true);
+    }
+    public long getNodes() {
+        long nodes = 0L;
+        for (Search search : searches) {
+            nodes += search.getNodes();
+        }
+        return nodes;
+    }
+    @Override
+    public void close() {
+        stop();
+        if (helperPool != null) helperPool.shutdownNow();
+    }
+
+    private Search.Result withTotalNodes(Search.Result result) {
+        return new Search.Result(result.depth, result.score, getNodes(), result.elapsedMillis, result.principalVariation);
+    }
+    private static Search.Result waitFor(Future<Search.Result> helper) {
+        try {
+            return helper.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException("Search helper thread failed.", e.getCause());
+        }
+    }
+
+    // Usage: ParallelSearch [depth] [maxThreads] [FEN...]
+    // Searches the position to the given depth with 1, 2, 4, ... up to maxThreads threads (default: every core), and prints the
+    // time to depth, the speed and the speedup of each against one thread. Each run starts from an empty table.
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 7;
+        int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String FEN = (args.length > 2) ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : Perft.STANDARD_POSITIONS.get(1).FEN;
+        long singleThreadMillis = 0L;
+        long singleThreadNodesPerSecond = 0L;
+        for (int threads = 1; threads <= maxThreads; threads = (threads * 2 > maxThreads && threads < maxThreads) ? maxThreads : threads * 2) {
+            try (ParallelSearch search = new ParallelSearch(threads, new TranspositionTable(64))) {
+                Search.Result result = search.search(new Board(FEN), Search.Limits.depth(depth));
+                long millis = Math.max(result.elapsedMillis, 1L);
+                if (threads == 1) {
+                    singleThreadMillis = millis;
+                    singleThreadNodesPerSecond = Math.max(result.nodesPerSecond(), 1L);
+                }
+                System.out.printf("threads %2d: depth %d in %6d ms, %10d nodes/sec, time to depth speedup %.2f, nodes/sec speedup %.2f, bestmove %s%n",
+                        threads, result.depth, millis, result.nodesPerSecond(), (double) singleThreadMillis / millis,
+                        (double) result.nodesPerSecond() / singleThreadNodesPerSecond, result.bestMove());
+            }
+        }
+    }
+}
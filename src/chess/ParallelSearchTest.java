@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParallelSearchTest {
+    @Test
+    public void testSearch() {
+        try (ParallelSearch search = new ParallelSearch(4, new TranspositionTable(16))) {
+            // Test that several threads still find the mate and the hanging queen.
+            Search.Result result = search.search(new Board("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1"), Search.Limits.depth(6));
+            assertEquals(2, result.mateIn());
+            result = search.search(new Board("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), Search.Limits.depth(4));
+            assertEquals(new Move("d2", "d5"), result.bestMove());
+            // Test that the board is unchanged, and that the reported nodes include the helpers' nodes.
+            Board board = new Board(Perft.STANDARD_POSITIONS.get(1).FEN);
+            result = search.search(board, Search.Limits.depth(4));
+            assertEquals(Perft.STANDARD_POSITIONS.get(1).FEN, board.getFEN());
+            assertTrue(board.getLegalMoves(board.getToMove()).contains(result.bestMove()));
+            assertEquals(search.getNodes(), result.nodes);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(0, new TranspositionTable(1)));
+    }
+    @Test
+    public void testStop() throws InterruptedException {
+        // Test that stop() ends an unlimited search on every thread.
+        try (ParallelSearch search = new ParallelSearch(3, new TranspositionTable(16))) {
+            Thread stopper = new Thread(() -> {
+                try {
+                    Thread.sleep(300);
+                }
+                catch (InterruptedException ignored) { }
+                search.stop();
+            });
+            stopper.start();
+            Search.Result result = search.search(new Board(), Search.Limits.infinite());
+            stopper.join();
+            assertNotNull(result.bestMove());
+            // Test that the same threads can search again after being stopped.
+            result = search.search(new Board(), Search.Limits.depth(3));
+            assertEquals(3, result.depth);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package chess;
+
+// A fixed-size cache of pawn structure evaluations, keyed on Board.pawnKey(). Pawns move rarely compared to the other pieces, so most
+// positions a search visits share their pawn structure with many others, and the doubled, isolated, backward and passed pawn terms
+// are looked up instead of recomputed. The entries are allocated once and overwritten in place, so probing never allocates.
+// Unlike TranspositionTable the table is not safe to share between threads; every Search owns one.
+public class PawnHashTable {
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    public static class Entry {
+        private long key;
+        private boolean isFilled;
+        // The pawn structure terms from white's point of view.
+        public int middlegameScore;
+        public int endgameScore;
+        // Indexed by PieceColor ordinal.
+        public final long[] passedPawns = new long[2];
+    }
+
+    private final Entry[] entries;
+    private final int entryMask;
+    private long hits;
+    private long misses;
+
+    public PawnHashTable() {
+        this(DEFAULT_ENTRIES);
+    }
+    // The number of entries is rounded down to a power of two.
+    public PawnHashTable(int entries) {
+        if (entries < 1) throw new IllegalArgumentException("Pawn hash table must have at least 1 entry, but was given " + entries + ".");
+        int capacity = Integer.highestOneBit(entries);
+        this.entries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.entries[i] = new Entry();
+        }
+        this.entryMask = capacity - 1;
+    }
+
+    /*
+    Method Tested in PawnHashTableTest.java
+    Description: This method finds the pawn structure evaluation of the position, evaluating the pawns and storing the result in the
+                 table if they are not there yet.
+    Parameters: board(Board) -> the position whose pawns to look up
+    Returns: the entry for the pawns of the position. It belongs to the table and is overwritten by a later probe that misses on the same slot.
+    Examples: refer to test method.
+     */
+    public Entry probe(Board board) {
+        long key = board.pawnKey();
+        Entry entry = entries[(int) key & entryMask];
+        if (entry.isFilled && entry.key == key) {
+            hits++;
+            return entry;
+        }
+        misses++;
+        Evaluator.evaluatePawnStructure(board.getPieceBitboard(PieceType.Pawn, PieceColor.White),
+                board.getPieceBitboard(PieceType.Pawn, PieceColor.Black), entry);
+        entry.key = key;
+        entry.isFilled = true;
+        return entry;
+    }
+    public void clear() {
+        for (Entry entry : entries) {
+            entry.isFilled = false;
+        }
+        hits = 0L;
+        misses = 0L;
+    }
+    public int getCapacity() {
+        return entries.length;
+    }
+    public long getHits() {
+        return hits;
+    }
+    public long getMisses() {
+        return misses;
+    }
+}
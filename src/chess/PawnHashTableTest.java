@@ -0,0 +1,57 @@
+package chess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PawnHashTableTest {
+    @Test
+    public void testProbe() {
+        PawnHashTable table = new PawnHashTable(1024);
+        Board board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        // Test that the first probe evaluates the pawns and the second finds the same entry.
+        PawnHashTable.Entry entry = table.probe(board);
+        assertEquals(0L, table.getHits());
+        assertEquals(1L, table.getMisses());
+        assertSame(entry, table.probe(board));
+        assertEquals(1L, table.getHits());
+        // Test that a move that leaves the pawns alone still finds the entry, and a pawn move does not.
+        board.makeMove("a1", "b1");
+        assertSame(entry, table.probe(board));
+        assertEquals(2L, table.getHits());
+        board.unmakeMove();
+        board.makeMove("d5", "e6");
+        table.probe(board);
+        assertEquals(2L, table.getMisses());
+        board.unmakeMove();
+        assertEquals(entry.middlegameScore, table.probe(board).middlegameScore);
+        assertEquals(entry.endgameScore, table.probe(board).endgameScore);
+        // Test that the cached terms give the same evaluation as computing them every time, all through a search tree.
+        for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) {
+            assertEvaluationsMatch(new Board(position.FEN), table, 3);
+        }
+        assertTrue(table.getHits() > table.getMisses());
+        table.clear();
+        assertEquals(0L, table.getHits());
+        table.probe(board);
+        assertEquals(1L, table.getMisses());
+    }
+    @Test
+    public void testCapacity() {
+        assertEquals(PawnHashTable.DEFAULT_ENTRIES, new PawnHashTable().getCapacity());
+        assertEquals(512, new PawnHashTable(1000).getCapacity());
+        assertEquals(1, new PawnHashTable(1).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new PawnHashTable(0));
+    }
+    private static void assertEvaluationsMatch(Board board, PawnHashTable table, int depth) {
+        assertEquals(board.getFEN(), Evaluator.evaluate(board), Evaluator.evaluate(board, table));
+        if (depth == 0) return;
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(board.getToMove(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeMove(moves.get(i));
+            assertEvaluationsMatch(board, table, depth - 1);
+            board.unmakeMove();
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package chess;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+// Perft (performance test) walks the move generation tree to a fixed depth and counts the leaf nodes.
+// The counts for the standard positions below are well known, so any difference points to a move generation bug.
+public class Perft {
+    public static class PerftPosition {
+        public final String name;
+        public final String FEN;
+        // expectedNodes[depth - 1] is the number of leaf nodes at that depth.
+        public final long[] expectedNodes;
+
+        public PerftPosition(String name, String FEN, long... expectedNodes) {
+            this.name = name;
+            this.FEN = FEN;
+            this.expectedNodes = expectedNodes;
+        }
+        public int maxDepth() {
+            return expectedNodes.length;
+        }
+    }
+
+    public static final List<PerftPosition> STANDARD_POSITIONS = List.of(
+            new PerftPosition("Starting position", Board.STARTING_BOARD_FEN,
+                    20L, 400L, 8_902L, 197_281L, 4_865_609L, 119_060_324L),
+            new PerftPosition("Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48L, 2_039L, 97_862L, 4_085_603L, 193_690_690L),
+            new PerftPosition("Position 3", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14L, 191L, 2_812L, 43_238L, 674_624L, 11_030_083L),
+            new PerftPosition("Position 4", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6L, 264L, 9_467L, 422_333L, 15_833_292L),
+            new PerftPosition("Position 5", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44L, 1_486L, 62_379L, 2_103_487L, 89_941_194L),
+            new PerftPosition("Position 6", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46L, 2_079L, 89_890L, 3_894_594L, 164_075_551L)
+    );
+
+    // The outcome of a parallel perft run: the total, how many leaf nodes each worker thread counted, and how long it took.
+    public static class ParallelResult {
+        public final long nodes;
+        public final long elapsedNanos;
+        public final SortedMap<String, Long> nodesPerThread;
+
+        public ParallelResult(long nodes, long elapsedNanos, SortedMap<String, Long> nodesPerThread) {
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+            this.nodesPerThread = nodesPerThread;
+        }
+        public long nodesPerSecond() {
+            return (elapsedNanos == 0L) ? 0L : (long) (nodes * 1e9 / elapsedNanos);
+        }
+    }
+
+    // Depths up to this are counted by a single task, as splitting them further costs more in board copies than it gains.
+    private static final int SEQUENTIAL_DEPTH = 3;
+
+    private Perft() { }
+
+    /*
+    Method Tested in PerftTest.java
+    Description: This method counts the leaf nodes of the legal move tree of the given board, to the given depth.
+    Parameters: board(Board) -> the position to count from, which is unchanged when the method returns
+                depth(int) -> the number of plies to search
+    Returns: the number of positions reached at exactly the given depth.
+    Examples: refer to test method.
+     */
+    public static long perft(Board board, int depth) {
+        return perft(board, depth, null);
+    }
+    // With a cache, subtrees of depth 2 or more that have been counted before are looked up instead of walked again.
+    public static long perft(Board board, int depth, PerftHashTable cache) {
+        if (depth == 0) return 1L;
+        // One move list per ply, reused for every node at that ply.
+        MoveList[] moveLists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return perft(board, depth, moveLists, cache);
+    }
+    private static long perft(Board board, int depth, MoveList[] moveLists, PerftHashTable cache) {
+        // The cache is probed before the moves are generated, so a subtree found there costs no move generation at all.
+        if (cache != null && depth >= 2) {
+            long cached = cache.probe(board.hashKey(), depth);
+            if (cached != PerftHashTable.NO_ENTRY) return cached;
+        }
+        PieceColor sideToMove = board.getToMove();
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        board.generateLegalMoves(sideToMove, moves);
+        // Every generated move is legal, so the last ply only needs counting.
+        if (depth == 1) return moves.size();
+        long nodes = 0L;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            nodes += perft(board, depth - 1, moveLists, cache);
+            board.unmakeMove();
+        }
+        if (cache != null) cache.store(board.hashKey(), depth, nodes);
+        return nodes;
+    }
+
+    /*
+    Method Tested in PerftTest.java
+    Description: This method counts the same leaf nodes as perft, split over the threads of a fork/join pool. The root moves, and the
+                 replies to them when the depth is large enough, become separate tasks with their own copy of the board, and the
+                 pool's work stealing keeps every thread busy however uneven the subtrees are.
+    Parameters: board(Board) -> the position to count from, which is not changed
+                depth(int) -> the number of plies to search
+                pool(ForkJoinPool) -> the threads to run on
+                cache(PerftHashTable) -> a cache shared by all threads, or null for none
+    Returns: the node count, the nodes counted by each thread and the time taken.
+    Examples: refer to test method.
+     */
+    public static ParallelResult parallelPerft(Board board, int depth, ForkJoinPool pool, PerftHashTable cache) {
+        long start = System.nanoTime();
+        Map<String, LongAdder> nodesPerThread = new ConcurrentHashMap<>();
+        int splitPlies = (depth > SEQUENTIAL_DEPTH + 1) ? 2 : 1;
+        long nodes = pool.invoke(new PerftTask(new Board(board), depth, splitPlies, cache, nodesPerThread));
+        long elapsed = System.nanoTime() - start;
+        SortedMap<String, Long> counts = new TreeMap<>();
+        nodesPerThread.forEach((thread, count) -> counts.put(thread, count.sum()));
+        return new ParallelResult(nodes, elapsed, counts);
+    }
+    private static class PerftTask extends RecursiveTask<Long> {
+        // RecursiveTask is Serializable, though tasks are never serialized.
+        private static final long serialVersionUID = 1L;
+
+        private final Board board;
+        private final int depth;
+        private final int splitPlies;
+        private final PerftHashTable cache;
+        private final Map<String, LongAdder> nodesPerThread;
+
+        PerftTask(Board board, int depth, int splitPlies, PerftHashTable cache, Map<String, LongAdder> nodesPerThread) {
+            this.board = board;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+            this.cache = cache;
+            this.nodesPerThread = nodesPerThread;
+        }
+        @Override
+        protected Long compute() {
+            if (splitPlies == 0 || depth <= 1) {
+                long nodes = perft(board, depth, cache);
+                nodesPerThread.computeIfAbsent(Thread.currentThread().getName(), thread -> new LongAdder()).add(nodes);
+                return nodes;
+            }
+            MoveList moves = new MoveList();
+            board.generateLegalMoves(board.getToMove(), moves);
+            List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                Board child = new Board(board);
+                child.makeMove(moves.get(i));
+                tasks.add(new PerftTask(child, depth - 1, splitPlies - 1, cache, nodesPerThread));
+            }
+            long nodes = 0L;
+            for (PerftTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    // Returns the node count below each legal root move, sorted by move so that the output can be compared against other engines.
+    public static SortedMap<String, Long> divide(Board board, int depth) {
+        if (depth < 1) throw new IllegalArgumentException("Divide requires a depth of at least 1, but was given " + depth + ".");
+        PieceColor sideToMove = board.getToMove();
+        SortedMap<String, Long> nodesPerMove = new TreeMap<>();
+        MoveList moves = new MoveList();
+        board.generateLegalMoves(sideToMove, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeMove(move);
+            nodesPerMove.put(Move.encodedToString(move), perft(board, depth - 1));
+            board.unmakeMove();
+        }
+        return nodesPerMove;
+    }
+
+    public static void printDivide(Board board, int depth) {
+        long start = System.nanoTime();
+        long total = 0L;
+        for (Map.Entry<String, Long> entry : divide(board, depth).entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println();
+        System.out.println("Nodes searched: " + total);
+        System.out.println(formatSpeed(total, elapsed));
+    }
+
+    // Runs every standard position up to maxDepth, printing the node count and speed of each depth.
+    // Returns false if any count differs from the expected one.
+    public static boolean runSuite(int maxDepth) {
+        boolean allPassed = true;
+        long totalNodes = 0L;
+        long totalTime = 0L;
+        for (PerftPosition position : STANDARD_POSITIONS) {
+            System.out.println(position.name + " - " + position.FEN);
+            Board board = new Board(position.FEN);
+            for (int depth = 1; depth <= Math.min(maxDepth, position.maxDepth()); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft(board, depth);
+                long elapsed = System.nanoTime() - start;
+                long expected = position.expectedNodes[depth - 1];
+                boolean passed = nodes == expected;
+                allPassed &= passed;
+                totalNodes += nodes;
+                totalTime += elapsed;
+                System.out.println("  depth " + depth + ": " + nodes + (passed ? "" : " (expected " + expected + ")") + ", " + formatSpeed(nodes, elapsed));
+            }
+        }
+        System.out.println("Total: " + totalNodes + " nodes, " + formatSpeed(totalNodes, totalTime));
+        System.out.println(allPassed ? "All counts match." : "Some counts do not match.");
+        return allPassed;
+    }
+
+    public static String formatSpeed(long nodes, long elapsedNanos) {
+        long millis = elapsedNanos / 1_000_000L;
+        long nodesPerSecond = (elapsedNanos == 0L) ? 0L : (long) (nodes * 1e9 / elapsedNanos);
+        return millis + " ms, " + nodesPerSecond + " nodes/sec";
+    }
+
+    // Usage: Perft [maxDepth]                  runs the standard suite up to maxDepth (default 4)
+    //        Perft divide <depth> [FEN...]     prints the divide of the given position (default: starting position)
+    //        Perft parallel <depth> <threads> <hashMB> [FEN...]
+    //                                          counts the given position on the given number of threads, with a perft hash table
+    //                                          of the given size (0 for none), and prints the count of each thread
+    public static void main(String[] args) {
+        if (args.length >= 4 && args[0].equals("parallel")) {
+            int depth = Integer.parseInt(args[1]);
+            int threads = Integer.parseInt(args[2]);
+            int hashMegabytes = Integer.parseInt(args[3]);
+            String FEN = (args.length > 4) ? String.join(" ", Arrays.copyOfRange(args, 4, args.length)) : Board.STARTING_BOARD_FEN;
+            PerftHashTable cache = (hashMegabytes > 0) ? new PerftHashTable(hashMegabytes) : null;
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ParallelResult result = parallelPerft(new Board(FEN), depth, pool, cache);
+            pool.shutdown();
+            for (Map.Entry<String, Long> entry : result.nodesPerThread.entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+            System.out.println();
+            System.out.println("Nodes searched: " + result.nodes);
+            System.out.println(formatSpeed(result.nodes, result.elapsedNanos));
+            return;
+        }
+        if (args.length >= 2 && args[0].equals("divide")) {
+            int depth = Integer.parseInt(args[1]);
+            String FEN = (args.length > 2) ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : Board.STARTING_BOARD_FEN;
+            printDivide(new Board(FEN), depth);
+            return;
+        }
+        int maxDepth = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+        if (!runSuite(maxDepth)) {
+            System.exit(1);
+        }
+    }
+}
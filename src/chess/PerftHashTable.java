@@ -0,0 +1,45 @@
+package chess;
+
+// A fixed-size cache of perft results, keyed on (Board.hashKey(), depth), so that a subtree reached again by another move order is
+// counted once. Like TranspositionTable, each entry is the data and the key XORed with it, so threads can share the cache without
+// locks: a torn entry does not give back the probed key and reads as a miss. New results always replace old ones.
+public class PerftHashTable {
+    // Returned by probe() on a miss. Only depths of 2 and more are worth storing, so a real entry is never zero.
+    public static final long NO_ENTRY = -1L;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+    // Spreads the depths of the same position over different entries.
+    private static final long DEPTH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final long[] table;
+    private final long entryMask;
+
+    public PerftHashTable(int megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("Perft hash table size must be at least 1 MB, but was given " + megabytes + ".");
+        long entries = Long.highestOneBit(Math.min((long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY, Integer.MAX_VALUE / LONGS_PER_ENTRY));
+        this.table = new long[(int) (entries * LONGS_PER_ENTRY)];
+        this.entryMask = entries - 1;
+    }
+
+    // Returns the stored node count, or NO_ENTRY.
+    public long probe(long key, int depth) {
+        int index = index(key, depth);
+        long data = table[index + 1];
+        if (data == 0L || (table[index] ^ data) != key || (data & 0xFF) != depth) return NO_ENTRY;
+        return data >>> 8;
+    }
+    // The data packs the depth in the low 8 bits and the node count above it.
+    public void store(long key, int depth, long nodes) {
+        int index = index(key, depth);
+        long data = (nodes << 8) | depth;
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+    public int getCapacity() {
+        return table.length / LONGS_PER_ENTRY;
+    }
+
+    private int index(long key, int depth) {
+        return (int) ((key ^ depth * DEPTH_MULTIPLIER) & entryMask) * LONGS_PER_ENTRY;
+    }
+}
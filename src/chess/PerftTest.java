@@ -0,0 +1,71 @@
+package chess;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class PerftTest {
+    @Test
+    public void testStandardPositions() {
+        // Test the standard perft positions to a shallow depth, which already covers castling, en passant and promotions.
+        for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) {
+            Board board = new Board(position.FEN);
+            for (int depth = 1; depth <= 3; depth++) {
+                assertEquals(position.name + " at depth " + depth, position.expectedNodes[depth - 1], Perft.perft(board, depth));
+            }
+            // Test that perft leaves the board as it found it.
+            assertEquals(position.FEN, board.getFEN());
+        }
+        Perft.PerftPosition position3 = Perft.STANDARD_POSITIONS.get(2);
+        assertEquals(position3.expectedNodes[4], Perft.perft(new Board(position3.FEN), 5));
+    }
+    @Test
+    public void testParallelPerft() {
+        // Test that the parallel count matches the known counts, with and without a cache, and that the threads' counts add up to it.
+        ForkJoinPool pool = new ForkJoinPool(4);
+        PerftHashTable cache = new PerftHashTable(16);
+        try {
+            for (Perft.PerftPosition position : Perft.STANDARD_POSITIONS) {
+                Board board = new Board(position.FEN);
+                Perft.ParallelResult result = Perft.parallelPerft(board, 3, pool, null);
+                assertEquals(position.name, position.expectedNodes[2], result.nodes);
+                assertEquals(result.nodes, result.nodesPerThread.values().stream().mapToLong(Long::longValue).sum());
+                assertEquals(position.name, position.expectedNodes[3], Perft.parallelPerft(board, 4, pool, cache).nodes);
+                assertEquals(position.FEN, board.getFEN());
+            }
+            // Test that a second run is answered from the cache, and still gives the same count.
+            Perft.PerftPosition kiwipete = Perft.STANDARD_POSITIONS.get(1);
+            assertEquals(kiwipete.expectedNodes[3], Perft.perft(new Board(kiwipete.FEN), 4, cache));
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+    @Test
+    public void testPerftHashTable() {
+        PerftHashTable cache = new PerftHashTable(1);
+        long key = new Board().hashKey();
+        cache.store(key, 3, 8_902L);
+        assertEquals(8_902L, cache.probe(key, 3));
+        // Test that the same position at another depth, or another position, is a miss.
+        assertEquals(PerftHashTable.NO_ENTRY, cache.probe(key, 4));
+        assertEquals(PerftHashTable.NO_ENTRY, cache.probe(key ^ 1L, 3));
+        assertThrows(IllegalArgumentException.class, () -> new PerftHashTable(0));
+    }
+    @Test
+    public void testDivide() {
+        SortedMap<String, Long> divide = Perft.divide(new Board(), 2);
+        assertEquals(20, divide.size());
+        assertEquals(Long.valueOf(20), divide.get("e2e4"));
+        assertEquals(Long.valueOf(20), divide.get("g1f3"));
+        assertEquals(400L, divide.values().stream().mapToLong(Long::longValue).sum());
+        // Test that promotions are listed separately for each piece.
+        divide = Perft.divide(new Board("4k3/1P6/8/8/8/8/8/4K3 w - - 0 1"), 1);
+        assertTrue(divide.keySet().containsAll(List.of("b7b8q", "b7b8r", "b7b8b", "b7b8n")));
+        assertThrows(IllegalArgumentException.class, () -> Perft.divide(new Board(), 0));
+    }
+}
@@ -1,3 +1,5 @@
+package chess;
+
 public enum PieceColor {
     White, Black;
     public static PieceColor getOpposite(PieceColor pieceColor) {
@@ -1,3 +1,5 @@
+package chess;
+
 public enum PieceType {
     King, Queen, Rook, Bishop, Knight, Pawn, Empty
 }
@@ -0,0 +1,197 @@
+package chess;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// A reader for Polyglot opening books (.bin files). A book is a file of 16-byte entries, sorted by position key (see PolyglotKey):
+//   bytes 0-7    the key, big-endian, compared unsigned
+//   bytes 8-9    the move: target square in bits 0-5, origin square in bits 6-11 and promotion in bits 12-14 (1 knight, 2 bishop,
+//                3 rook, 4 queen), with squares counted from a1 like Board's; castling is written as the king taking its own rook
+//   bytes 10-11  the weight, how often the move should be played relative to the others
+//   bytes 12-15  learning data, which is ignored
+// The files are memory-mapped, so opening a book reads nothing and a probe is a binary search that touches about log2(entries)
+// pages. That is a few microseconds once the pages are cached, whatever the size of the book. Nothing is allocated by a probe; the
+// moves go into a Moves the caller reuses.
+// Several books can be stacked: they are probed in the order given, and the first book that knows the position answers, so a small
+// hand-made book can take precedence over a large general one.
+public class PolyglotBook {
+    public static final int ENTRY_BYTES = 16;
+    private static final int MAX_WEIGHT = 0xFFFF;
+
+    // The book moves of a position, as moves packed with the flags the board needs (see Move.encode) and their weights.
+    // Reused from probe to probe; one per thread, as it is also the scratch space of the probe.
+    public static class Moves {
+        private int[] moves = new int[MoveList.DEFAULT_CAPACITY];
+        private int[] weights = new int[MoveList.DEFAULT_CAPACITY];
+        private int size;
+        private long totalWeight;
+        private final MoveList legalMoves = new MoveList();
+
+        public int size() {
+            return size;
+        }
+        public boolean isEmpty() {
+            return size == 0;
+        }
+        public int getMove(int index) {
+            if (index >= size) throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for " + size + " book moves.");
+            return moves[index];
+        }
+        public int getWeight(int index) {
+            if (index >= size) throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for " + size + " book moves.");
+            return weights[index];
+        }
+        public long getTotalWeight() {
+            return totalWeight;
+        }
+        /*
+        Method Tested in PolyglotBookTest.java
+        Description: This method picks a move with a probability proportional to its weight. Moves of weight 0 are never picked.
+        Parameters: random(long) -> any random number, such as from ThreadLocalRandom.nextLong()
+        Returns: the move, or 0 if there are no moves with a weight.
+        Examples: refer to test method.
+         */
+        public int choose(long random) {
+            if (totalWeight == 0L) return 0;
+            long remaining = Math.floorMod(random, totalWeight);
+            for (int i = 0; i < size; i++) {
+                remaining -= weights[i];
+                if (remaining < 0L) return moves[i];
+            }
+            throw new IllegalStateException("Book move weights add up to " + totalWeight + " but the moves did not.");
+        }
+        public String toString() {
+            StringBuilder builder = new StringBuilder("[");
+            for (int i = 0; i < size; i++) {
+                if (i > 0) builder.append(", ");
+                builder.append(Move.encodedToString(moves[i])).append(' ').append(weights[i]);
+            }
+            return builder.append("]").toString();
+        }
+
+        private void clear() {
+            size = 0;
+            totalWeight = 0L;
+        }
+        private void add(int move, int weight) {
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, moves.length * 2);
+                weights = Arrays.copyOf(weights, weights.length * 2);
+            }
+            moves[size] = move;
+            weights[size++] = weight;
+            totalWeight += weight;
+        }
+    }
+
+    private final PolyglotKey key;
+    private final MappedFile[] books;
+
+    // Books written with Polyglot's standard keys, which is nearly all of them.
+    public PolyglotBook(Path... paths) throws IOException {
+        this(PolyglotKey.STANDARD, paths);
+    }
+    public PolyglotBook(PolyglotKey key, Path... paths) throws IOException {
+        if (paths.length == 0) throw new IllegalArgumentException("A book needs at least one file.");
+        this.key = key;
+        this.books = new MappedFile[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            books[i] = new MappedFile(paths[i]);
+            if (books[i].size() % ENTRY_BYTES != 0) {
+                throw new IllegalArgumentException(paths[i] + " is not a Polyglot book: its size, " + books[i].size() + " bytes, is not a multiple of " + ENTRY_BYTES + ".");
+            }
+        }
+    }
+
+    /*
+    Method Tested in PolyglotBookTest.java
+    Description: This method looks the position up in the books, in order, and keeps the moves of the first book that has it. Entries
+                 whose move is not legal in the position are skipped, as they can only come from a key collision or a broken book.
+    Parameters: board(Board) -> the position to look up
+                moves(Moves) -> cleared, then filled with the book moves in the order of the book, which is usually by weight
+    Returns: the number of book moves found.
+    Examples: refer to test method.
+     */
+    public int probe(Board board, Moves moves) {
+        moves.clear();
+        long positionKey = key.compute(board);
+        boolean hasLegalMoves = false;
+        for (MappedFile book : books) {
+            long entries = book.size() / ENTRY_BYTES;
+            for (long entry = lowerBound(book, entries, positionKey); entry < entries && book.getLong(entry * ENTRY_BYTES) == positionKey; entry++) {
+                if (!hasLegalMoves) {
+                    moves.legalMoves.clear();
+                    board.generateLegalMoves(board.getToMove(), moves.legalMoves);
+                    hasLegalMoves = true;
+                }
+                long data = book.getLong(entry * ENTRY_BYTES + Long.BYTES);
+                int move = toMove(board, (int) (data >>> 48), moves.legalMoves);
+                if (move != 0) moves.add(move, (int) (data >>> 32) & MAX_WEIGHT);
+            }
+            if (!moves.isEmpty()) break;
+        }
+        return moves.size();
+    }
+
+    // The first entry whose key is not below the given key, or entries if there is none.
+    private static long lowerBound(MappedFile book, long entries, long positionKey) {
+        long low = 0L;
+        long high = entries;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(book.getLong(middle * ENTRY_BYTES), positionKey) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    // Finds the legal move the book move stands for, or returns 0.
+    private static int toMove(Board board, int bookMove, MoveList legalMoves) {
+        int target = bookMove & 0x3F;
+        int origin = (bookMove >>> 6) & 0x3F;
+        PieceType promotion = switch ((bookMove >>> 12) & 0x7) {
+            case 1 -> PieceType.Knight;
+            case 2 -> PieceType.Bishop;
+            case 3 -> PieceType.Rook;
+            case 4 -> PieceType.Queen;
+            default -> PieceType.Empty;
+        };
+        // Polyglot writes castling as the king taking its own rook, e1h1 for e1g1.
+        PieceColor toMove = board.getToMove();
+        if (board.getPieceAt(origin) == Board.getPieceIndex(PieceType.King, toMove) && board.getPieceAt(target) == Board.getPieceIndex(PieceType.Rook, toMove)) {
+            target = origin + ((target > origin) ? 2 : -2);
+        }
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int move = legalMoves.get(i);
+            if (Move.getOrigin(move) == origin && Move.getTarget(move) == target && Move.getPromotion(move) == promotion) return move;
+        }
+        return 0;
+    }
+
+    // Usage: PolyglotBook <book> [book...]   prints the book moves of the starting position and the average time of a probe
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: PolyglotBook <book> [book...]");
+            return;
+        }
+        Path[] paths = new Path[args.length];
+        for (int i = 0; i < args.length; i++) {
+            paths[i] = Path.of(args[i]);
+        }
+        PolyglotBook book = new PolyglotBook(paths);
+        Board board = new Board();
+        Moves moves = new Moves();
+        book.probe(board, moves);
+        System.out.println("book moves: " + moves);
+        int probes = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < probes; i++) {
+            book.probe(board, moves);
+        }
+        System.out.printf("%.2f microseconds per probe%n", (System.nanoTime() - start) / 1e3 / probes);
+    }
+}
@@ -0,0 +1,162 @@
+package chess;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.*;
+
+public class PolyglotBookTest {
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+    private static final String AFTER_E4 = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+    private static final String CASTLING = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+    private static final String PROMOTION = "4k3/1P6/8/8/8/8/8/4K3 w - - 0 1";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStandardKey() {
+        // Test the reference keys of the Polyglot book format, which cover pieces, castling rights, side to move, and en passant
+        // squares with and without a pawn that can capture there.
+        Board board = new Board();
+        assertEquals(0x463b96181691fc9cL, PolyglotKey.STANDARD.compute(board));
+        long[] expectedKeys = {0x823c9b50fd114196L, 0x0756b94461c50fb0L, 0x662fafb965db29d4L, 0x22a48b5a8e47ff78L, 0x652a607ca3f242c1L,
+                0x00fdd303c946bdd9L};
+        String[] moves = {"e2e4", "d7d5", "e4e5", "f7f5", "e1e2", "e8f7"};
+        for (int i = 0; i < moves.length; i++) {
+            board.makeMove(UciEngine.parseMove(board, moves[i]));
+            assertEquals(moves[i], expectedKeys[i], PolyglotKey.STANDARD.compute(board));
+        }
+        board = new Board();
+        for (String move : new String[]{"a2a4", "b7b5", "h2h4", "b5b4", "c2c4"}) {
+            board.makeMove(UciEngine.parseMove(board, move));
+        }
+        assertEquals(0x3c8123ea7b067637L, PolyglotKey.STANDARD.compute(board));
+        board.makeMove(UciEngine.parseMove(board, "b4c3"));
+        board.makeMove(UciEngine.parseMove(board, "a1a3"));
+        assertEquals(0x5c3f9b829b279560L, PolyglotKey.STANDARD.compute(board));
+    }
+
+    @Test
+    public void testKey() {
+        PolyglotKey key = new PolyglotKey(randoms(1L));
+        Board board = new Board(START);
+        long start = key.compute(board);
+        // Test that the key tells apart the side to move, castling rights and pieces, and only counts an en passant square that
+        // a pawn can capture on.
+        assertNotEquals(start, key.compute(new Board("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR b KQkq - 0 1")));
+        assertNotEquals(start, key.compute(new Board("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w Kkq - 0 1")));
+        assertNotEquals(start, key.compute(new Board("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNN w KQkq - 0 1")));
+        assertEquals(key.compute(new Board(AFTER_E4)), key.compute(new Board("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1")));
+        assertNotEquals(key.compute(new Board("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1")),
+                key.compute(new Board("rnbqkbnr/ppp1pppp/8/8/3pP3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1")));
+        // Test the layout of the table: a lone white king on a1 with black to move is the white king random of square 0 alone.
+        assertEquals(randoms(1L)[11 * 64], key.compute(new Board("8/8/8/8/8/8/8/K7 b - - 0 1")));
+        assertEquals(randoms(1L)[11 * 64] ^ randoms(1L)[780], key.compute(new Board("8/8/8/8/8/8/8/K7 w - - 0 1")));
+        assertThrows(IllegalArgumentException.class, () -> new PolyglotKey(new long[PolyglotKey.RANDOM_COUNT - 1]));
+    }
+
+    @Test
+    public void testProbe() throws IOException {
+        PolyglotKey key = PolyglotKey.read(writeRandoms(randoms(1L)));
+        List<long[]> main = new ArrayList<>();
+        main.add(entry(key, START, "e2e4", 30));
+        main.add(entry(key, START, "d2d4", 20));
+        main.add(entry(key, START, "g1f3", 0));
+        // A move that is not legal in the position, as a key collision would give, is skipped.
+        main.add(entry(key, START, "e2e5", 100));
+        main.add(entry(key, AFTER_E4, "c7c5", 1));
+        main.add(entry(key, CASTLING, "e1h1", 2));
+        main.add(entry(key, CASTLING, "e1a1", 1));
+        main.add(entry(key, PROMOTION, "b7b8n", 1));
+        // Unrelated entries, so the binary search has something to search through.
+        SplittableRandom random = new SplittableRandom(2L);
+        for (int i = 0; i < 5000; i++) {
+            main.add(new long[]{random.nextLong(), random.nextLong()});
+        }
+        Path mainBook = writeBook(main);
+        Path secondBook = writeBook(List.of(entry(key, START, "c2c4", 5), entry(key, AFTER_E4, "e7e5", 7)));
+
+        PolyglotBook book = new PolyglotBook(key, mainBook, secondBook);
+        PolyglotBook.Moves moves = new PolyglotBook.Moves();
+        Board board = new Board(START);
+        // Test that entries are read in order with their weights, and that the first book that has the position answers.
+        assertEquals(3, book.probe(board, moves));
+        assertEquals("[e2e4 30, d2d4 20, g1f3 0]", moves.toString());
+        assertEquals(50L, moves.getTotalWeight());
+        assertTrue(Move.hasFlag(moves.getMove(0), Move.DOUBLE_PAWN_PUSH));
+        // Test that weighted choice follows the weights and never picks a move of weight 0.
+        assertEquals(moves.getMove(0), moves.choose(0L));
+        assertEquals(moves.getMove(0), moves.choose(29L));
+        assertEquals(moves.getMove(1), moves.choose(30L));
+        assertEquals(moves.getMove(1), moves.choose(-1L));
+        // Test that a book further down the stack is not consulted for a position an earlier book has.
+        board.makeMove(moves.getMove(0));
+        assertEquals(1, book.probe(board, moves));
+        assertEquals("c7c5", Move.encodedToString(moves.getMove(0)));
+        // Test that a position only the second book has is found there.
+        PolyglotBook reversed = new PolyglotBook(key, secondBook);
+        assertEquals(1, reversed.probe(new Board(START), moves));
+        assertEquals("c2c4", Move.encodedToString(moves.getMove(0)));
+        // Test castling, written as the king taking the rook, and promotion.
+        assertEquals(2, book.probe(new Board(CASTLING), moves));
+        assertEquals("e1g1", Move.encodedToString(moves.getMove(0)));
+        assertTrue(Move.hasFlag(moves.getMove(0), Move.CASTLING));
+        assertEquals("e1c1", Move.encodedToString(moves.getMove(1)));
+        assertEquals(1, book.probe(new Board(PROMOTION), moves));
+        assertEquals("b7b8n", Move.encodedToString(moves.getMove(0)));
+        // Test that a book written with the standard keys is read without giving a key.
+        PolyglotBook standard = new PolyglotBook(writeBook(List.of(entry(PolyglotKey.STANDARD, START, "e2e4", 1))));
+        assertEquals(1, standard.probe(new Board(START), moves));
+        assertEquals("e2e4", Move.encodedToString(moves.getMove(0)));
+        // Test a position no book has, and a move with no weight to choose.
+        assertEquals(0, book.probe(new Board("4k3/8/8/8/8/8/8/4K3 w - - 0 1"), moves));
+        assertEquals(0, moves.choose(7L));
+        // Test that a file that is not made of whole entries is rejected.
+        Path broken = folder.newFile("broken.bin").toPath();
+        Files.write(broken, new byte[PolyglotBook.ENTRY_BYTES + 1]);
+        assertThrows(IllegalArgumentException.class, () -> new PolyglotBook(key, broken));
+        assertThrows(IllegalArgumentException.class, () -> new PolyglotBook(key));
+    }
+
+    private static long[] randoms(long seed) {
+        return new SplittableRandom(seed).longs(PolyglotKey.RANDOM_COUNT).toArray();
+    }
+    private Path writeRandoms(long[] randoms) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(randoms.length * Long.BYTES);
+        buffer.asLongBuffer().put(randoms);
+        Path path = folder.newFile().toPath();
+        Files.write(path, buffer.array());
+        return path;
+    }
+    // An entry as two longs: the key, then the move, weight and learning data. Moves are written as Polyglot writes them.
+    private static long[] entry(PolyglotKey key, String FEN, String move, int weight) {
+        int origin = Bitboard.squareIndex(move.charAt(1) - '1', move.charAt(0) - 'a');
+        int target = Bitboard.squareIndex(move.charAt(3) - '1', move.charAt(2) - 'a');
+        int promotion = (move.length() == 5) ? "nbrq".indexOf(move.charAt(4)) + 1 : 0;
+        long bookMove = (promotion << 12) | (origin << 6) | target;
+        return new long[]{key.compute(new Board(FEN)), (bookMove << 48) | ((long) weight << 32)};
+    }
+    // Writes the entries sorted by unsigned key, keeping the order of entries with the same key, as books are.
+    private Path writeBook(List<long[]> entries) throws IOException {
+        long[][] sorted = entries.toArray(new long[0][]);
+        Arrays.sort(sorted, (a, b) -> Long.compareUnsigned(a[0], b[0]));
+        ByteBuffer buffer = ByteBuffer.allocate(sorted.length * PolyglotBook.ENTRY_BYTES);
+        for (long[] entry : sorted) {
+            buffer.putLong(entry[0]).putLong(entry[1]);
+        }
+        Path path = folder.newFile().toPath();
+        Files.write(path, buffer.array());
+        return path;
+    }
+}
@@ -1,6 +1,17 @@
+package chess;
+
+// Positions are immutable, so the 64 squares of the board are created once and shared: Position.of() returns the interned instance
+// instead of allocating, and the constructors remain for callers that want their own copy.
 public class Position {
-    public int row;
-    public int col;
+    public final int row;
+    public final int col;
+    private static final Position[] POSITIONS = new Position[Board.BOARD_DIMENSION * Board.BOARD_DIMENSION];
+    static {
+        for (int square = 0; square < POSITIONS.length; square++) {
+            POSITIONS[square] = new Position(square / Board.BOARD_DIMENSION, square % Board.BOARD_DIMENSION);
+        }
+    }
+
     public Position(int row, int col) throws IllegalArgumentException {
         String exceptionMsg = getExceptionMessageIfExists(row, col);
         if (exceptionMsg != null) throw new IllegalArgumentException(exceptionMsg);
@@ -16,6 +27,19 @@ public class Position {
         this.row = other.row;
         this.col = other.col;
     }
+    public static Position of(int row, int col) {
+        String exceptionMsg = getExceptionMessageIfExists(row, col);
+        if (exceptionMsg != null) throw new IllegalArgumentException(exceptionMsg);
+        return POSITIONS[row * Board.BOARD_DIMENSION + col];
+    }
+    // The square index is row * 8 + col, as in Bitboard.
+    public static Position of(int square) {
+        if (square < 0 || square >= POSITIONS.length) throw new IllegalArgumentException("Square index " + square + " is out of bounds.");
+        return POSITIONS[square];
+    }
+    public static Position of(String chessNotation) {
+        return chessPositionToPosition(chessNotation);
+    }
     public String toString() {
         return "(" + row + ", " + col + ")";
     }
@@ -48,7 +72,7 @@ public class Position {
         int properRow = chessPosition.charAt(1) - '1';
         String exceptionMsg = getExceptionMessageIfExists(properRow, properCol);
         if (exceptionMsg != null) throw new IllegalArgumentException(exceptionMsg);
-        return new Position(properRow, properCol);
+        return POSITIONS[properRow * Board.BOARD_DIMENSION + properCol];
     }
 
     public static String getExceptionMessageIfExists(int row, int col) {
@@ -74,6 +98,9 @@ public class Position {
         if (!(obj instanceof Position other)) return false;
         return this.row == other.row && this.col == other.col;
     }
-
+    @Override
+    public int hashCode() {
+        return row * Board.BOARD_DIMENSION + col;
+    }
 
 }
@@ -1,4 +1,9 @@
+package chess;
+
 import org.junit.Test;
+
+import java.util.HashSet;
+
 import static org.junit.Assert.*;
 
 
@@ -32,5 +37,25 @@ public class PositionTest {
         // Test that chessPositionToPosition method throws IllegalArgumentException for out-of-bounds column
         assertThrows(IllegalArgumentException.class, () -> { Position.chessPositionToPosition("a9"); });
     }
+    @Test
+    public void testOf() {
+        // Test that Position.of returns the same shared instance for a square however it is given.
+        assertSame(Position.of(4, 0), Position.of("a5"));
+        assertSame(Position.of(4, 0), Position.of(32));
+        assertSame(Position.of("g1"), Position.chessPositionToPosition("g1"));
+        assertEquals(new Position(6, 2), Position.of("c7"));
+        assertThrows(IllegalArgumentException.class, () -> Position.of(8, 0));
+        assertThrows(IllegalArgumentException.class, () -> Position.of(64));
+    }
+    @Test
+    public void testHashCode() {
+        // Test that equal positions have equal hash codes, so they can be found in hash sets and maps.
+        assertEquals(new Position(1, 6).hashCode(), Position.of("g2").hashCode());
+        HashSet<Position> positions = new HashSet<>();
+        positions.add(new Position(3, 3));
+        positions.add(Position.of("d4"));
+        assertEquals(1, positions.size());
+        assertTrue(positions.contains(new Position("d4")));
+    }
 
 }
\ No newline at end of file
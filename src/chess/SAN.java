@@ -0,0 +1,133 @@
+package chess;
+
+// Standard Algebraic Notation, the move notation of PGN: the piece letter (none for a pawn), as much of the origin square as it takes
+// to tell apart two pieces that could make the move, an x for a capture, the target square, and =Q or the like for a promotion, e.g.
+// e4, Nbd7, R1e2, exd6, Qxh7+, e8=Q, O-O-O#. A move is resolved by generating the legal moves of the pieces it could be, and
+// keeping the one that lands on the target square. Check and annotation suffixes (+ # ! ?) are ignored, as is a missing x, and
+// castling may be written with zeros.
+public class SAN {
+    private static final long FILE_A = 0x0101010101010101L;
+    private static final long RANK_1 = 0xFFL;
+
+    private SAN() { }
+
+    /*
+    Method Tested in SANTest.java
+    Description: This method finds the legal move of the side to move that the SAN describes.
+    Parameters: board(Board) -> the position the move is played in
+                text(CharSequence) -> the move in SAN
+    Returns: the move, packed with the flags the board needs (see Move.encode).
+    Examples: refer to test method.
+     */
+    public static int parse(Board board, CharSequence text) {
+        int move = parse(board, text, 0, text.length(), new MoveList());
+        if (move == 0) throw new IllegalArgumentException("\"" + text + "\" is not a legal move, or is ambiguous, in " + board.getFEN() + ".");
+        return move;
+    }
+    // Reads the SAN in text[start, end), using moves as scratch space, and returns 0 if it is malformed, illegal or ambiguous.
+    // Does not allocate.
+    public static int parse(Board board, CharSequence text, int start, int end, MoveList moves) {
+        while (end > start && isSuffix(text.charAt(end - 1))) end--;
+        if (end - start < 2) return 0;
+        PieceColor sideToMove = board.getToMove();
+        moves.clear();
+        char first = text.charAt(start);
+        if (first == 'O' || first == '0') return parseCastling(board, text, start, end, moves);
+
+        PieceType pieceType = PieceType.Pawn;
+        int i = start;
+        switch (first) {
+            case 'K' -> pieceType = PieceType.King;
+            case 'Q' -> pieceType = PieceType.Queen;
+            case 'R' -> pieceType = PieceType.Rook;
+            case 'B' -> pieceType = PieceType.Bishop;
+            case 'N' -> pieceType = PieceType.Knight;
+            default -> i--;
+        }
+        i++;
+        // A promotion is the last letter, after an = or straight after the target square.
+        PieceType promotion = PieceType.Empty;
+        if (pieceType == PieceType.Pawn) {
+            promotion = promotionType(text.charAt(end - 1));
+            if (promotion != PieceType.Empty) {
+                end--;
+                if (end > i && text.charAt(end - 1) == '=') end--;
+            }
+        }
+        if (end - i < 2) return 0;
+        int target = squareAt(text, end - 2);
+        if (target == Bitboard.NO_SQUARE) return 0;
+        // Whatever is between the piece letter and the target square narrows down the origin.
+        long origins = board.getPieceBitboard(pieceType, sideToMove);
+        boolean hasFile = false;
+        for (int j = i; j < end - 2; j++) {
+            char c = text.charAt(j);
+            if (c >= 'a' && c <= 'h') {
+                origins &= FILE_A << (c - 'a');
+                hasFile = true;
+            }
+            else if (c >= '1' && c <= '8') {
+                origins &= RANK_1 << (Board.BOARD_DIMENSION * (c - '1'));
+            }
+            else if (c != 'x' && c != ':' && c != '-') {
+                return 0;
+            }
+        }
+        // A pawn move without a file, like e4, is a push, so the pawn is on the file of the target square.
+        if (pieceType == PieceType.Pawn && !hasFile) origins &= FILE_A << Bitboard.colOf(target);
+        if (origins == 0L) return 0;
+        board.generateLegalMoves(sideToMove, moves, MoveKind.All, origins);
+        int found = 0;
+        for (int j = 0; j < moves.size(); j++) {
+            int move = moves.get(j);
+            if (Move.getTarget(move) != target || Move.getPromotion(move) != promotion) continue;
+            if (found != 0) return 0;
+            found = move;
+        }
+        return found;
+    }
+
+    private static int parseCastling(Board board, CharSequence text, int start, int end, MoveList moves) {
+        int length = end - start;
+        boolean isKingside = length == 3 && matchesCastling(text, start, 1);
+        boolean isQueenside = length == 5 && matchesCastling(text, start, 2);
+        if (!isKingside && !isQueenside) return 0;
+        PieceColor sideToMove = board.getToMove();
+        long king = board.getPieceBitboard(PieceType.King, sideToMove);
+        if (king == 0L) return 0;
+        int kingSquare = Bitboard.lowestSquare(king);
+        board.generateLegalMoves(sideToMove, moves, MoveKind.Quiet, Bitboard.squareMask(kingSquare));
+        int target = kingSquare + (isKingside ? 2 : -2);
+        for (int j = 0; j < moves.size(); j++) {
+            int move = moves.get(j);
+            if (Move.hasFlag(move, Move.CASTLING) && Move.getTarget(move) == target) return move;
+        }
+        return 0;
+    }
+    // O-O or O-O-O, with letters or zeros, but not mixed.
+    private static boolean matchesCastling(CharSequence text, int start, int dashes) {
+        char o = text.charAt(start);
+        for (int i = 0; i < dashes; i++) {
+            if (text.charAt(start + 1 + 2 * i) != '-' || text.charAt(start + 2 + 2 * i) != o) return false;
+        }
+        return true;
+    }
+    private static int squareAt(CharSequence text, int index) {
+        char file = text.charAt(index);
+        char rank = text.charAt(index + 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') return Bitboard.NO_SQUARE;
+        return Bitboard.squareIndex(rank - '1', file - 'a');
+    }
+    private static PieceType promotionType(char c) {
+        return switch (c) {
+            case 'Q', 'q' -> PieceType.Queen;
+            case 'R', 'r' -> PieceType.Rook;
+            case 'B' -> PieceType.Bishop;
+            case 'N', 'n' -> PieceType.Knight;
+            default -> PieceType.Empty;
+        };
+    }
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+}
@@ -0,0 +1,41 @@
+package chess;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SANTest {
+    @Test
+    public void testParse() {
+        Board board = new Board();
+        // Test pawn pushes, piece moves, and that check and annotation suffixes are ignored.
+        assertEquals("e2e4", Move.encodedToString(SAN.parse(board, "e4")));
+        assertEquals("g1f3", Move.encodedToString(SAN.parse(board, "Nf3!?")));
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "e5"));
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "Nd2"));
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "Zz9"));
+        // Test that an ambiguous move needs its file or rank, and that a capture may leave out the x.
+        board.reset("4k3/8/8/8/8/8/1R4R1/R3K3 w Q - 0 1");
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "Rd2"));
+        assertEquals("b2d2", Move.encodedToString(SAN.parse(board, "Rbd2")));
+        assertEquals("a1a3", Move.encodedToString(SAN.parse(board, "Ra3")));
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "Rb1"));
+        assertEquals("a1b1", Move.encodedToString(SAN.parse(board, "R1b1")));
+        // Test castling with letters and zeros, and that castling without the right is illegal.
+        assertTrue(Move.hasFlag(SAN.parse(board, "O-O-O"), Move.CASTLING));
+        assertEquals("e1c1", Move.encodedToString(SAN.parse(board, "0-0-0+")));
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "O-O"));
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "O-0-O"));
+        // Test that castling without a king is not a move, rather than an error of the board.
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(new Board("4k3/8/8/8/8/8/8/R6R w - - 0 1"), "O-O"));
+        // Test captures, en passant, and promotions with and without the =, which must be given.
+        board.reset("r3k3/1P6/8/3pP3/8/8/8/4K3 w q d6 0 1");
+        int enPassant = SAN.parse(board, "exd6");
+        assertTrue(Move.hasFlag(enPassant, Move.EN_PASSANT));
+        assertEquals(enPassant, SAN.parse(board, "ed6"));
+        assertEquals("b7a8n", Move.encodedToString(SAN.parse(board, "bxa8=N+")));
+        assertEquals("b7b8q", Move.encodedToString(SAN.parse(board, "b8Q")));
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "b8"));
+        assertThrows(IllegalArgumentException.class, () -> SAN.parse(board, "d6"));
+    }
+}
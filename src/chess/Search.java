@@ -0,0 +1,362 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// Finds the best move of a position with principal variation search (alpha-beta that searches the first move with the full window
+// and the others with a null window) inside iterative deepening: depth 1, then 2, and so on until a limit is reached.
+// Each finished iteration is reported with its depth, node count, speed, score and principal variation.
+// The board is searched in place with makeMove and unmakeMove, and is left as it was given.
+public class Search {
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 32_000;
+    // A side that is mated in n plies scores -(MATE - n), so shorter mates score higher. Every score beyond MATE_BOUND is a mate.
+    public static final int MATE = 31_000;
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+    // How many nodes are searched between checks of the clock.
+    private static final int CHECK_INTERVAL = 1024;
+    // Helper threads of a parallel search skip some depths, so that they spread over different depths instead of all searching the
+    // same one: helper i skips a depth when (depth + SKIP_PHASE[i]) / SKIP_SIZE[i] is odd. The pattern repeats after 20 helpers.
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    public static class Limits {
+        public int depth = MAX_PLY - 1;
+        public long nodes = Long.MAX_VALUE;
+        // Volatile, since a UCI front-end sets it from another thread when a ponder search turns into a normal one.
+        public volatile long timeMillis = Long.MAX_VALUE;
+
+        public static Limits depth(int depth) {
+            Limits limits = new Limits();
+            limits.depth = depth;
+            return limits;
+        }
+        public static Limits nodes(long nodes) {
+            Limits limits = new Limits();
+            limits.nodes = nodes;
+            return limits;
+        }
+        public static Limits time(long timeMillis) {
+            Limits limits = new Limits();
+            limits.timeMillis = timeMillis;
+            return limits;
+        }
+        public static Limits infinite() {
+            return new Limits();
+        }
+    }
+
+    // The outcome of one iteration. The search returns the last one it finished.
+    public static class Result {
+        public final int depth;
+        public final int score;
+        public final long nodes;
+        public final long elapsedMillis;
+        // The principal variation as packed moves (see Move.encode), starting with the best move.
+        public final int[] principalVariation;
+
+        public Result(int depth, int score, long nodes, long elapsedMillis, int[] principalVariation) {
+            this.depth = depth;
+            this.score = score;
+            this.nodes = nodes;
+            this.elapsedMillis = elapsedMillis;
+            this.principalVariation = principalVariation;
+        }
+        // Returns null when the side to move has no legal moves.
+        public Move bestMove() {
+            return (principalVariation.length == 0) ? null : Move.decode(principalVariation[0]);
+        }
+        public List<Move> getPrincipalVariation() {
+            List<Move> moves = new ArrayList<>(principalVariation.length);
+            for (int move : principalVariation) {
+                moves.add(Move.decode(move));
+            }
+            return moves;
+        }
+        public long nodesPerSecond() {
+            return (elapsedMillis == 0L) ? 0L : nodes * 1000L / elapsedMillis;
+        }
+        public boolean isMate() {
+            return Math.abs(score) > MATE_BOUND;
+        }
+        // Moves until mate, as UCI counts them: positive if the side to move mates, negative if it is mated.
+        public int mateIn() {
+            if (!isMate()) throw new IllegalStateException("Score " + score + " is not a mate score.");
+            return (score > 0) ? (MATE - score + 1) / 2 : -(MATE + score) / 2;
+        }
+        // Formatted like the body of a UCI info line.
+        public String toString() {
+            return toString(-1);
+        }
+        // The same, with how full the hash table is in permille, which has to come before the pv since the pv runs to the end of the
+        // line. A negative hashfull is left out.
+        public String toString(int hashfull) {
+            StringBuilder builder = new StringBuilder();
+            builder.append("depth ").append(depth);
+            builder.append(isMate() ? " score mate " + mateIn() : " score cp " + score);
+            builder.append(" nodes ").append(nodes).append(" nps ").append(nodesPerSecond()).append(" time ").append(elapsedMillis);
+            if (hashfull >= 0) builder.append(" hashfull ").append(hashfull);
+            builder.append(" pv");
+            for (int move : principalVariation) {
+                builder.append(' ').append(Move.encodedToString(move));
+            }
+            return builder.toString();
+        }
+    }
+
+    private final TranspositionTable transpositionTable;
+    // A search on its own owns its stop flag. The threads of a ParallelSearch share one, and their index decides which depths they skip.
+    private final AtomicBoolean stopFlag;
+    private final boolean isStandalone;
+    private final int threadIndex;
+    // One move picker per ply, and a triangular table where row ply holds the principal variation found from that ply.
+    private final MovePicker[] movePickers = new MovePicker[MAX_PLY + 1];
+    private final int[][] pvTable = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+    // Each thread caches its own pawn structure evaluations; the table is not shared like the transposition table.
+    private final PawnHashTable pawnHashTable = new PawnHashTable();
+    private final MoveOrdering moveOrdering = new MoveOrdering();
+    private boolean isOrderingMoves = true;
+    private boolean aborted;
+    private Board board;
+    private Limits limits;
+    private long nodes;
+    private long startTime;
+    private int completedDepth;
+    private int rootBestMove;
+
+    public Search() {
+        this(new TranspositionTable(16));
+    }
+    public Search(TranspositionTable transpositionTable) {
+        this(transpositionTable, new AtomicBoolean(), 0, true);
+    }
+    // For the threads of a ParallelSearch, which resets the shared stop flag and starts a new table generation itself.
+    Search(TranspositionTable transpositionTable, AtomicBoolean stopFlag, int threadIndex) {
+        this(transpositionTable, stopFlag, threadIndex, false);
+    }
+    private Search(TranspositionTable transpositionTable, AtomicBoolean stopFlag, int threadIndex, boolean isStandalone) {
+        this.transpositionTable = transpositionTable;
+        this.stopFlag = stopFlag;
+        this.threadIndex = threadIndex;
+        this.isStandalone = isStandalone;
+        for (int ply = 0; ply <= MAX_PLY; ply++) {
+            movePickers[ply] = new MovePicker(moveOrdering);
+        }
+    }
+
+    public Result search(Board board, Limits limits) {
+        return search(board, limits, result -> { });
+    }
+
+    /*
+    Method Tested in SearchTest.java
+    Description: This method searches the position to deeper and deeper depths until one of the limits is reached or stop() is called,
+                 and reports every finished iteration to the listener. The first iteration is always finished, so there is a move to play.
+    Parameters: board(Board) -> the position to search, which is unchanged when the method returns
+                limits(Limits) -> the depth, node and time limits
+                listener(Consumer<Result>) -> called with the result of each finished iteration
+    Returns: the result of the deepest finished iteration.
+    Examples: refer to test method.
+     */
+    public Result search(Board board, Limits limits, Consumer<Result> listener) {
+        this.board = board;
+        this.limits = limits;
+        this.nodes = 0L;
+        this.startTime = System.nanoTime();
+        this.completedDepth = 0;
+        this.rootBestMove = 0;
+        this.aborted = false;
+        if (isStandalone) {
+            stopFlag.set(false);
+            transpositionTable.newSearch();
+        }
+        moveOrdering.newSearch();
+        Result result = null;
+        for (int depth = 1; depth <= Math.min(limits.depth, MAX_PLY - 1); depth++) {
+            if (skipsDepth(depth)) continue;
+            int score = search(depth, 0, -INFINITY, INFINITY);
+            if (aborted) break;
+            completedDepth = depth;
+            result = new Result(depth, score, nodes, elapsedMillis(), Arrays.copyOf(pvTable[0], pvLength[0]));
+            if (pvLength[0] > 0) rootBestMove = pvTable[0][0];
+            listener.accept(result);
+            // Nothing deeper changes a position without moves, or a forced mate that has been found in full.
+            if (pvLength[0] == 0 || Math.abs(score) > MATE_BOUND && MATE - Math.abs(score) <= depth) break;
+            if (shouldStop()) break;
+        }
+        return result;
+    }
+    // Asks a running search to return as soon as possible, with the result of the last finished iteration. Safe to call from any thread.
+    public void stop() {
+        stopFlag.set(true);
+    }
+    public long getNodes() {
+        return nodes;
+    }
+    // Turning move ordering off searches the moves in the order they are generated, to measure what the ordering saves.
+    public void setMoveOrdering(boolean isOrderingMoves) {
+        this.isOrderingMoves = isOrderingMoves;
+    }
+
+    private int search(int depth, int ply, int alpha, int beta) {
+        if (depth <= 0) return quiescence(ply, alpha, beta);
+        if (enterNode(ply)) return 0;
+        if (ply > 0 && (board.halfMoveClock >= 100 || board.isRepetition())) return 0;
+        if (ply >= MAX_PLY) return Evaluator.evaluate(board, pawnHashTable);
+
+        boolean isPvNode = beta - alpha > 1;
+        long key = board.hashKey();
+        long entry = transpositionTable.probe(key);
+        if (entry != TranspositionTable.NO_ENTRY && !isPvNode && TranspositionTable.getDepth(entry) >= depth) {
+            int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+            int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || bound == TranspositionTable.LOWER_BOUND && score >= beta
+                    || bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+                return score;
+            }
+        }
+
+        PieceColor sideToMove = board.getToMove();
+        MovePicker picker = movePickers[ply];
+        // At the root the best move of the previous iteration is searched first, even if its table entry has been replaced, so that
+        // the full window goes to the most likely best move.
+        if (isOrderingMoves) {
+            int hashMove = (ply == 0) ? rootBestMove : (entry != TranspositionTable.NO_ENTRY) ? TranspositionTable.getMove(entry) : 0;
+            picker.reset(board, hashMove, ply);
+        }
+        else {
+            picker.resetUnordered(board, (ply == 0) ? rootBestMove : 0);
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = 0;
+        int moveCount = 0;
+        for (int move = picker.next(); move != 0; move = picker.next()) {
+            moveCount++;
+            board.makeMove(move);
+            int score;
+            if (moveCount == 1) {
+                score = -search(depth - 1, ply + 1, -beta, -alpha);
+            }
+            else {
+                // Later moves only have to be shown worse than the best so far; the full window is needed only if one turns out better.
+                score = -search(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) {
+                    score = -search(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            board.unmakeMove();
+            if (aborted) return 0;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (score >= beta) {
+                        if (isOrderingMoves && MoveOrdering.isQuiet(move)) moveOrdering.recordCutoff(sideToMove, move, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+        if (moveCount == 0) return board.isInCheck(sideToMove) ? -MATE + ply : 0;
+        int bound = (bestScore >= beta) ? TranspositionTable.LOWER_BOUND : (bestScore > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        transpositionTable.store(key, bestMove, scoreToTable(bestScore, ply), Math.min(depth, TranspositionTable.MAX_DEPTH), bound);
+        return bestScore;
+    }
+    // Searches only captures and promotions that do not lose material, until the position is quiet, so that the evaluation is never
+    // taken in the middle of an exchange. The side to move may also stand pat on the evaluation, since it is not forced to capture,
+    // unless it is in check, when every evasion is searched instead so that mates are seen.
+    private int quiescence(int ply, int alpha, int beta) {
+        if (enterNode(ply)) return 0;
+        // Captures are irreversible, but the evasions searched when in check include quiet moves, which can repeat a position.
+        if (board.halfMoveClock >= 100 || board.isRepetition()) return 0;
+        if (ply >= MAX_PLY) return Evaluator.evaluate(board, pawnHashTable);
+        PieceColor sideToMove = board.getToMove();
+        boolean isInCheck = board.isInCheck(sideToMove);
+        int bestScore = -INFINITY;
+        MovePicker picker = movePickers[ply];
+        if (isInCheck) {
+            picker.reset(board, 0, ply);
+        }
+        else {
+            bestScore = Evaluator.evaluate(board, pawnHashTable);
+            if (bestScore >= beta) return bestScore;
+            if (bestScore > alpha) alpha = bestScore;
+            picker.resetNoisy(board);
+        }
+        int moveCount = 0;
+        for (int move = picker.next(); move != 0; move = picker.next()) {
+            moveCount++;
+            board.makeMove(move);
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (aborted) return 0;
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (score >= beta) break;
+                }
+            }
+        }
+        if (isInCheck && moveCount == 0) return -MATE + ply;
+        return bestScore;
+    }
+    // Counts the node and checks the limits every CHECK_INTERVAL nodes. Returns whether the search has been aborted.
+    private boolean enterNode(int ply) {
+        if (aborted) return true;
+        pvLength[ply] = 0;
+        nodes++;
+        if ((nodes & (CHECK_INTERVAL - 1)) == 0 || nodes >= limits.nodes) {
+            if (shouldStop()) aborted = true;
+        }
+        return aborted;
+    }
+    private void updatePrincipalVariation(int ply, int move) {
+        pvTable[ply][0] = move;
+        System.arraycopy(pvTable[ply + 1], 0, pvTable[ply], 1, pvLength[ply + 1]);
+        pvLength[ply] = pvLength[ply + 1] + 1;
+    }
+
+    // The first iteration always runs to the end, so that there is always a move to return.
+    private boolean shouldStop() {
+        if (completedDepth == 0) return false;
+        return stopFlag.get() || nodes >= limits.nodes || elapsedMillis() >= limits.timeMillis;
+    }
+    private boolean skipsDepth(int depth) {
+        if (threadIndex == 0) return false;
+        int i = (threadIndex - 1) % SKIP_SIZE.length;
+        return ((depth + SKIP_PHASE[i]) / SKIP_SIZE[i]) % 2 != 0;
+    }
+    private long elapsedMillis() {
+        return (System.nanoTime() - startTime) / 1_000_000L;
+    }
+
+    // Mate scores are stored relative to the position rather than to the root, so that an entry is right wherever the position is reached.
+    private static int scoreToTable(int score, int ply) {
+        if (score > MATE_BOUND) return score + ply;
+        if (score < -MATE_BOUND) return score - ply;
+        return score;
+    }
+    private static int scoreFromTable(int score, int ply) {
+        if (score > MATE_BOUND) return score - ply;
+        if (score < -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    // Usage: Search [depth] [FEN...]     searches the given position (default: starting position) to the given depth (default 6)
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 6;
+        String FEN = (args.length > 1) ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : Board.STARTING_BOARD_FEN;
+        Result result = new Search().search(new Board(FEN), Limits.depth(depth), iteration -> System.out.println("info " + iteration));
+        System.out.println("bestmove " + (result.bestMove() == null ? "(none)" : result.bestMove()));
+    }
+}
@@ -0,0 +1,107 @@
+package chess;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchTest {
+    @Test
+    public void testFindsMate() {
+        // Test that a back rank mate in one is found and scored as a mate.
+        Search.Result result = new Search().search(new Board("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), Search.Limits.depth(4));
+        assertEquals(new Move("a1", "a8"), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.mateIn());
+        // Test that the rook ladder is found as a mate in two, and that the search stops once the mate is proven.
+        result = new Search().search(new Board("7k/8/8/8/8/8/R7/1R4K1 w - - 0 1"), Search.Limits.depth(10));
+        assertEquals(2, result.mateIn());
+        assertTrue(result.depth < 10);
+        // Test that the side being mated sees the mate coming.
+        result = new Search().search(new Board("7k/R7/8/8/8/8/8/1R4K1 b - - 0 1"), Search.Limits.depth(4));
+        assertEquals(-1, result.mateIn());
+    }
+    @Test
+    public void testSearch() {
+        // Test that a hanging queen is captured.
+        Board board = new Board("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        Search.Result result = new Search().search(board, Search.Limits.depth(3));
+        assertEquals(new Move("d2", "d5"), result.bestMove());
+        assertTrue(result.score > 0);
+        // Test that a stalemated side has no move and a drawn score.
+        result = new Search().search(new Board("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"), Search.Limits.depth(3));
+        assertNull(result.bestMove());
+        assertEquals(0, result.score);
+        // Test that the board is left unchanged, that every iteration is reported, and that the principal variation is a legal line.
+        board = new Board(Perft.STANDARD_POSITIONS.get(1).FEN);
+        List<Search.Result> iterations = new ArrayList<>();
+        result = new Search().search(board, Search.Limits.depth(4), iterations::add);
+        assertEquals(Perft.STANDARD_POSITIONS.get(1).FEN, board.getFEN());
+        assertEquals(4, iterations.size());
+        for (int depth = 1; depth <= 4; depth++) {
+            assertEquals(depth, iterations.get(depth - 1).depth);
+        }
+        assertSame(iterations.get(3), result);
+        for (Move move : result.getPrincipalVariation()) {
+            assertTrue(board.getLegalMoves(board.getToMove()).contains(move));
+            board.makeMove(move);
+        }
+        assertTrue(result.toString().startsWith("depth 4 score cp "));
+    }
+    @Test
+    public void testQuiescence() {
+        // Test that a shallow search sees the recapture after taking a defended pawn, even when the capture gives check.
+        Board board = new Board("4k3/8/3p4/4p3/8/8/8/4QK2 w - - 0 1");
+        for (int depth = 1; depth <= 3; depth++) {
+            assertNotEquals(new Move("e1", "e5"), new Search().search(board, Search.Limits.depth(depth)).bestMove());
+        }
+        // Test that a depth 1 search takes the undefended knight rather than the rook the pawn defends.
+        Search.Result result = new Search().search(new Board("4k3/8/2p5/3r4/n7/8/8/3QK3 w - - 0 1"), Search.Limits.depth(1));
+        assertEquals(new Move("d1", "a4"), result.bestMove());
+        // Test that quiescence finds a mate that follows checks and evasions.
+        result = new Search().search(new Board("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1"), Search.Limits.depth(1));
+        assertTrue(result.isMate());
+    }
+    @Test
+    public void testMoveOrdering() {
+        // Test that ordering the moves finds the same best move in a position with one good move, and searches fewer nodes to the same depth.
+        for (boolean isOrderingMoves : new boolean[]{true, false}) {
+            Search search = new Search();
+            search.setMoveOrdering(isOrderingMoves);
+            assertEquals(new Move("d2", "d5"), search.search(new Board("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1"), Search.Limits.depth(4)).bestMove());
+        }
+        Search ordered = new Search();
+        Search unordered = new Search();
+        unordered.setMoveOrdering(false);
+        Board board = new Board(Perft.STANDARD_POSITIONS.get(1).FEN);
+        assertTrue(ordered.search(board, Search.Limits.depth(4)).nodes < unordered.search(board, Search.Limits.depth(4)).nodes);
+    }
+    @Test
+    public void testLimits() throws InterruptedException {
+        // Test that the node limit is kept, once the first iteration has finished.
+        Search search = new Search();
+        Search.Result result = search.search(new Board(), Search.Limits.nodes(5_000));
+        assertNotNull(result.bestMove());
+        assertTrue(search.getNodes() <= 5_000);
+        // Test that the time limit is kept, with some slack for a slow machine.
+        long start = System.currentTimeMillis();
+        result = new Search().search(new Board(), Search.Limits.time(200));
+        assertNotNull(result.bestMove());
+        assertTrue(System.currentTimeMillis() - start < 2_000);
+        // Test that stop() ends an unlimited search from another thread.
+        Search infinite = new Search();
+        Thread stopper = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            }
+            catch (InterruptedException ignored) { }
+            infinite.stop();
+        });
+        stopper.start();
+        result = infinite.search(new Board(), Search.Limits.infinite());
+        stopper.join();
+        assertNotNull(result.bestMove());
+    }
+}
@@ -1,3 +1,5 @@
+package chess;
+
 import java.util.*;
 
 public class Square {
@@ -17,8 +19,15 @@ public class Square {
         this.pieceType = PieceType.Empty;
         this.pieceColor = Optional.empty();
     }
+    public Square(String position, PieceType pieceType, PieceColor pieceColor) {
+        this(Position.chessPositionToPosition(position), pieceType, pieceColor);
+    }
+
+    public Square(String position) {
+        this(Position.chessPositionToPosition(position));
+    }
     public Square(Square other) {
-        this.position = new Position(other.position);
+        this.position = other.position;
         this.pieceType = other.pieceType;
         this.pieceColor = other.pieceColor;
     }
@@ -67,5 +76,9 @@ public class Square {
         boolean optionalsAreSame = this.pieceColor.isEmpty() && other.pieceColor.isEmpty() || this.pieceColor.isPresent() && other.pieceColor.isPresent() && this.pieceColor.get() == other.pieceColor.get();
         return this.position.equals(other.position) && this.pieceType == other.pieceType && optionalsAreSame;
     }
+    @Override
+    public int hashCode() {
+        return Objects.hash(position, pieceType, pieceColor);
+    }
 
 }
@@ -1,3 +1,5 @@
+package chess;
+
 import org.junit.Test;
 import static org.junit.Assert.*;
 
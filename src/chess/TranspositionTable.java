@@ -0,0 +1,170 @@
+package chess;
+
+import java.util.Arrays;
+
+// A fixed-size hash table of search results, keyed on Board.hashKey(), that several threads can share without locking.
+// Each entry is two longs: the packed data, and the key XORed with the data. A probe only accepts an entry whose two halves give back
+// the probed key, so an entry torn by two threads writing at once reads as a miss instead of handing out another position's data.
+// Entries are grouped in buckets of two, and the replacement policy decides which one a new result goes into.
+public class TranspositionTable {
+    public enum ReplacementPolicy {
+        // The first slot keeps the deepest result of the current search, and everything else goes into the second slot.
+        DEPTH_PREFERRED,
+        // The newest result always goes into the first slot, pushing the previous one into the second, so the bucket holds the last two.
+        ALWAYS_REPLACE
+    }
+
+    // Bound types: an exact score, or a score that is only known to be at least (lower) or at most (upper) the stored value.
+    public static final int EXACT = 1, LOWER_BOUND = 2, UPPER_BOUND = 3;
+    // Returned by probe() on a miss. Stored entries always have a bound type, so they are never zero.
+    public static final long NO_ENTRY = 0L;
+    public static final int MAX_DEPTH = 0xFF;
+    private static final int BUCKET_SIZE = 2;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+    private static final int GENERATIONS = 1 << 8;
+    // Origin, target and promotion: the part of a packed move below the flags.
+    private static final long MOVE_MASK = Move.CAPTURE - 1;
+
+    private final ReplacementPolicy policy;
+    private long[] table;
+    private long bucketMask;
+    // Bumped at the start of each search, so that entries from earlier searches are replaced first.
+    private volatile int generation;
+
+    public TranspositionTable(int megabytes) {
+        this(megabytes, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+    public TranspositionTable(int megabytes, ReplacementPolicy policy) {
+        this.policy = policy;
+        resize(megabytes);
+    }
+
+    // The number of buckets is rounded down to a power of two, so the bucket of a key is just its low bits.
+    public void resize(int megabytes) {
+        if (megabytes < 1) throw new IllegalArgumentException("Transposition table size must be at least 1 MB, but was given " + megabytes + ".");
+        long entries = (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY;
+        long buckets = Long.highestOneBit(Math.min(entries / BUCKET_SIZE, Integer.MAX_VALUE / (BUCKET_SIZE * LONGS_PER_ENTRY)));
+        this.table = new long[(int) (buckets * BUCKET_SIZE * LONGS_PER_ENTRY)];
+        this.bucketMask = buckets - 1;
+        this.generation = 0;
+    }
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+    public int getCapacity() {
+        return table.length / LONGS_PER_ENTRY;
+    }
+    public ReplacementPolicy getPolicy() {
+        return policy;
+    }
+
+    /*
+    Method Tested in TranspositionTableTest.java
+    Description: This method looks up the entry stored for a position.
+    Parameters: key(long) -> the position's hash key, see Board.hashKey()
+    Returns: the packed entry, to be read with getMove, getScore, getDepth and getBound, or NO_ENTRY if the position is not stored.
+    Examples: refer to test method.
+     */
+    public long probe(long key) {
+        int index = bucketIndex(key);
+        for (int slot = 0; slot < BUCKET_SIZE; slot++, index += LONGS_PER_ENTRY) {
+            long data = table[index + 1];
+            if ((table[index] ^ data) == key && data != NO_ENTRY) return data;
+        }
+        return NO_ENTRY;
+    }
+
+    /*
+    Method Tested in TranspositionTableTest.java
+    Description: This method stores the result of searching a position, choosing the slot according to the replacement policy.
+                 An entry for the same position is always overwritten in place.
+    Parameters: key(long) -> the position's hash key
+                move(int) -> the best move found, packed as in Move.encode (flags are dropped), or 0 for none
+                score(int) -> the score, which must fit in a short
+                depth(int) -> the depth searched, from 0 to MAX_DEPTH
+                bound(int) -> EXACT, LOWER_BOUND or UPPER_BOUND
+    Examples: refer to test method.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        if (bound < EXACT || bound > UPPER_BOUND) throw new IllegalArgumentException("Invalid bound type " + bound + ".");
+        if (depth < 0 || depth > MAX_DEPTH) throw new IllegalArgumentException("Depth " + depth + " cannot be stored, as it is not between 0 and " + MAX_DEPTH + ".");
+        if (score < Short.MIN_VALUE || score > Short.MAX_VALUE) throw new IllegalArgumentException("Score " + score + " does not fit in a transposition table entry.");
+        int currentGeneration = generation;
+        long data = pack(move, score, depth, bound, currentGeneration);
+        int first = bucketIndex(key);
+        int second = first + LONGS_PER_ENTRY;
+        if (matches(first, key)) {
+            write(first, key, data);
+            return;
+        }
+        if (matches(second, key)) {
+            write(second, key, data);
+            return;
+        }
+        long firstData = table[first + 1];
+        switch (policy) {
+            case DEPTH_PREFERRED -> {
+                boolean replaceFirst = firstData == NO_ENTRY || getGeneration(firstData) != currentGeneration || depth >= getDepth(firstData);
+                write(replaceFirst ? first : second, key, data);
+            }
+            case ALWAYS_REPLACE -> {
+                long firstCheck = table[first];
+                table[second] = firstCheck;
+                table[second + 1] = firstData;
+                write(first, key, data);
+            }
+        }
+    }
+
+    // The permille of entries that hold a result of the current search, as UCI's hashfull reports it. Only the first buckets are sampled.
+    public int hashfull() {
+        int sampled = Math.min(getCapacity(), 1000);
+        int used = 0;
+        for (int entry = 0; entry < sampled; entry++) {
+            long data = table[entry * LONGS_PER_ENTRY + 1];
+            if (data != NO_ENTRY && getGeneration(data) == generation) used++;
+        }
+        return used * 1000 / sampled;
+    }
+
+    // An entry packs the move in bits 0-14, the score in 16-31, the depth in 32-39, the bound type in 40-41 and the generation in 42-49.
+    private static long pack(int move, int score, int depth, int bound, int generation) {
+        return (move & MOVE_MASK)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) depth << 32)
+                | ((long) bound << 40)
+                | ((long) generation << 42);
+    }
+    public static int getMove(long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+    public static int getScore(long entry) {
+        return (short) (entry >>> 16);
+    }
+    public static int getDepth(long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+    public static int getBound(long entry) {
+        return (int) ((entry >>> 40) & 0x3);
+    }
+    private static int getGeneration(long entry) {
+        return (int) ((entry >>> 42) & 0xFF);
+    }
+
+    private int bucketIndex(long key) {
+        return (int) (key & bucketMask) * BUCKET_SIZE * LONGS_PER_ENTRY;
+    }
+    private boolean matches(int index, long key) {
+        long data = table[index + 1];
+        return data != NO_ENTRY && (table[index] ^ data) == key;
+    }
+    private void write(int index, long key, long data) {
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+}
@@ -0,0 +1,96 @@
+package chess;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTest {
+    @Test
+    public void testStoreAndProbe() {
+        TranspositionTable table = new TranspositionTable(1);
+        Board board = new Board();
+        int move = Move.encode(new Move("e2", "e4"));
+        // Test that a stored entry gives back every field, including a negative score and the move without its flags.
+        table.store(board.hashKey(), move | Move.DOUBLE_PAWN_PUSH, -1234, 7, TranspositionTable.LOWER_BOUND);
+        long entry = table.probe(board.hashKey());
+        assertNotEquals(TranspositionTable.NO_ENTRY, entry);
+        assertEquals(move, TranspositionTable.getMove(entry));
+        assertEquals(-1234, TranspositionTable.getScore(entry));
+        assertEquals(7, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.getBound(entry));
+        // Test that a different position is a miss, even when it falls into the same bucket.
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(board.hashKey() ^ (1L << 62)));
+        // Test that storing the same position again overwrites its entry.
+        table.store(board.hashKey(), move, 50, 3, TranspositionTable.EXACT);
+        assertEquals(50, TranspositionTable.getScore(table.probe(board.hashKey())));
+        table.clear();
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(board.hashKey()));
+        // Test that invalid entries are rejected.
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, 0, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, 0, 0, TranspositionTable.MAX_DEPTH + 1, TranspositionTable.EXACT));
+        assertThrows(IllegalArgumentException.class, () -> table.store(1L, 0, 40_000, 0, TranspositionTable.EXACT));
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+    @Test
+    public void testCapacity() {
+        // Test that the table holds as many 16-byte entries as fit in the given size.
+        assertEquals(65_536, new TranspositionTable(1).getCapacity());
+        assertEquals(16 * 65_536, new TranspositionTable(16).getCapacity());
+    }
+    @Test
+    public void testReplacementPolicy() {
+        // Three keys in the same bucket: only the low bits pick the bucket.
+        long key0 = 5L, key1 = 5L | (1L << 40), key2 = 5L | (1L << 41);
+        TranspositionTable depthPreferred = new TranspositionTable(1, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        depthPreferred.store(key0, 0, 0, 10, TranspositionTable.EXACT);
+        depthPreferred.store(key1, 0, 0, 2, TranspositionTable.EXACT);
+        depthPreferred.store(key2, 0, 0, 3, TranspositionTable.EXACT);
+        // Test that the deep entry survives, while the shallow ones take turns in the other slot.
+        assertNotEquals(TranspositionTable.NO_ENTRY, depthPreferred.probe(key0));
+        assertEquals(TranspositionTable.NO_ENTRY, depthPreferred.probe(key1));
+        assertNotEquals(TranspositionTable.NO_ENTRY, depthPreferred.probe(key2));
+        // Test that a deep entry from an earlier search can be replaced.
+        depthPreferred.newSearch();
+        depthPreferred.store(key1, 0, 0, 1, TranspositionTable.EXACT);
+        assertEquals(TranspositionTable.NO_ENTRY, depthPreferred.probe(key0));
+        assertNotEquals(TranspositionTable.NO_ENTRY, depthPreferred.probe(key1));
+
+        TranspositionTable alwaysReplace = new TranspositionTable(1, TranspositionTable.ReplacementPolicy.ALWAYS_REPLACE);
+        alwaysReplace.store(key0, 0, 0, 10, TranspositionTable.EXACT);
+        alwaysReplace.store(key1, 0, 0, 2, TranspositionTable.EXACT);
+        alwaysReplace.store(key2, 0, 0, 3, TranspositionTable.EXACT);
+        // Test that the two newest entries are kept, whatever their depth.
+        assertEquals(TranspositionTable.NO_ENTRY, alwaysReplace.probe(key0));
+        assertNotEquals(TranspositionTable.NO_ENTRY, alwaysReplace.probe(key1));
+        assertNotEquals(TranspositionTable.NO_ENTRY, alwaysReplace.probe(key2));
+    }
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        // Several threads store and probe keys that collide in a tiny table. Each entry's score is derived from its key,
+        // so any probe that returned half of one write and half of another would show up as a wrong score.
+        TranspositionTable table = new TranspositionTable(1);
+        AtomicBoolean corrupted = new AtomicBoolean(false);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int seed = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = ((long) (i % 1000) << 32) * 0x9E3779B97F4A7C15L + (i + seed) % 64;
+                    table.store(key, 0, scoreFor(key), i % 32, TranspositionTable.EXACT);
+                    long entry = table.probe(key ^ (seed << 20));
+                    if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.getScore(entry) != scoreFor(key ^ (seed << 20))) corrupted.set(true);
+                }
+            }));
+        }
+        for (Thread thread : threads) thread.start();
+        for (Thread thread : threads) thread.join();
+        assertFalse(corrupted.get());
+    }
+    private static int scoreFor(long key) {
+        return (short) (key ^ (key >>> 16) ^ (key >>> 32) ^ (key >>> 48));
+    }
+}
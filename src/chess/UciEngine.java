@@ -0,0 +1,327 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+// Speaks the Universal Chess Interface, so that GUIs and tournament managers can run the engine. The thread that calls run() only reads
+// and handles commands; every search runs on a thread of its own and streams an info line for each finished iteration, so stop,
+// ponderhit and isready are answered while it is searching. The engine keeps one board, and a position command that only adds moves
+// to the previous one plays the new moves on it instead of setting the position up again.
+public class UciEngine {
+    public static final String NAME = "RefinedChess";
+    public static final int DEFAULT_HASH_MEGABYTES = 16;
+    public static final int MAX_HASH_MEGABYTES = 4096;
+    public static final int MAX_THREADS = 256;
+    // Without movestogo, the remaining time is spread over this many moves.
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    // Kept back from the clock for the time it takes the GUI to receive the move.
+    private static final long MOVE_OVERHEAD_MILLIS = 50L;
+    // The words of a go command that are not values, which end the move list of searchmoves.
+    private static final Set<String> GO_ARGUMENTS = Set.of("searchmoves", "ponder", "wtime", "btime", "winc", "binc", "movestogo", "depth",
+            "nodes", "mate", "movetime", "infinite");
+
+    private final BufferedReader input;
+    private final PrintStream output;
+    private final TranspositionTable transpositionTable = new TranspositionTable(DEFAULT_HASH_MEGABYTES);
+    private ParallelSearch search = new ParallelSearch(1, transpositionTable);
+    private Board board = new Board();
+    // The FEN the board was set up from and the moves played on it since, to tell whether the next position command only adds moves.
+    private String positionFEN = Board.STARTING_BOARD_FEN;
+    private final List<String> positionMoves = new ArrayList<>();
+
+    private Thread searchThread;
+    // Guarded by this: whether the running search is a ponder search that has not had a ponderhit or stop yet.
+    private boolean isPondering;
+    private Search.Limits searchLimits;
+    private long searchStartTime;
+    private long ponderTimeMillis;
+
+    public UciEngine(InputStream input, PrintStream output) {
+        this.input = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.output = output;
+    }
+
+    // Reads and handles commands until quit or the end of the input.
+    public void run() throws IOException {
+        String line;
+        while ((line = input.readLine()) != null) {
+            if (!handle(line)) return;
+        }
+        handle("quit");
+    }
+
+    /*
+    Method Tested in UciEngineTest.java
+    Description: This method handles one line of input. Unknown commands and malformed arguments are reported in an info string and
+                 otherwise ignored, as UCI asks.
+    Parameters: line(String) -> the command and its arguments, separated by whitespace
+    Returns: false after quit, true otherwise.
+    Examples: refer to test method.
+     */
+    public boolean handle(String line) {
+        String[] tokens = line.trim().split("\\s+");
+        try {
+            switch (tokens[0]) {
+                case "uci" -> {
+                    send("id name " + NAME);
+                    send("id author SGidalevitz");
+                    send("option name Hash type spin default " + DEFAULT_HASH_MEGABYTES + " min 1 max " + MAX_HASH_MEGABYTES);
+                    send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                    send("option name Ponder type check default false");
+                    send("uciok");
+                }
+                case "isready" -> send("readyok");
+                case "setoption" -> setOption(line);
+                case "ucinewgame" -> {
+                    stopSearch();
+                    transpositionTable.clear();
+                }
+                case "position" -> setPosition(tokens);
+                case "go" -> go(tokens);
+                case "stop" -> stop();
+                case "ponderhit" -> ponderHit();
+                case "quit" -> {
+                    stopSearch();
+                    search.close();
+                    return false;
+                }
+                case "" -> { }
+                default -> send("info string Unknown command: " + line.trim());
+            }
+        }
+        catch (IllegalArgumentException | IllegalStateException e) {
+            send("info string " + e.getMessage());
+        }
+        return true;
+    }
+    public Board getBoard() {
+        return board;
+    }
+    // Blocks until the running search, if any, has sent its best move.
+    public void waitForSearch() {
+        Thread thread = searchThread;
+        if (thread == null) return;
+        try {
+            thread.join();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Commands that change what the search works with end the running search first, which then sends its best move as on stop.
+    // Only waiting for it could block the input forever behind go infinite or go ponder, so that stop, quit and isready went unread.
+    private void stopSearch() {
+        stop();
+        waitForSearch();
+    }
+    private void setOption(String line) {
+        int nameIndex = line.indexOf(" name ");
+        int valueIndex = line.indexOf(" value ");
+        if (nameIndex < 0) throw new IllegalArgumentException("setoption needs a name: " + line.trim());
+        String name = line.substring(nameIndex + 6, (valueIndex < 0) ? line.length() : valueIndex).trim();
+        String value = (valueIndex < 0) ? "" : line.substring(valueIndex + 7).trim();
+        stopSearch();
+        switch (name.toLowerCase()) {
+            case "hash" -> transpositionTable.resize(parseOption(name, value, 1, MAX_HASH_MEGABYTES));
+            case "threads" -> {
+                int threads = parseOption(name, value, 1, MAX_THREADS);
+                if (threads != search.getThreads()) {
+                    search.close();
+                    search = new ParallelSearch(threads, transpositionTable);
+                }
+            }
+            // Pondering needs nothing set up; the GUI says when to ponder with go ponder.
+            case "ponder" -> { }
+            default -> throw new IllegalArgumentException("Unknown option: " + name);
+        }
+    }
+    private static int parseOption(String name, String value, int min, int max) {
+        try {
+            int number = Integer.parseInt(value);
+            if (number < min || number > max) throw new NumberFormatException();
+            return number;
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option " + name + " must be a number from " + min + " to " + max + ", but was given \"" + value + "\".");
+        }
+    }
+
+    // position startpos [moves ...] or position fen <FEN> [moves ...]
+    private void setPosition(String[] tokens) {
+        stopSearch();
+        int movesIndex = Arrays.asList(tokens).indexOf("moves");
+        int end = (movesIndex < 0) ? tokens.length : movesIndex;
+        String FEN;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            FEN = Board.STARTING_BOARD_FEN;
+        }
+        else if (tokens.length > 2 && tokens[1].equals("fen")) {
+            FEN = String.join(" ", Arrays.copyOfRange(tokens, 2, end));
+        }
+        else {
+            throw new IllegalArgumentException("position needs startpos or fen: " + String.join(" ", tokens));
+        }
+        List<String> moves = (movesIndex < 0) ? List.of() : Arrays.asList(tokens).subList(movesIndex + 1, tokens.length);
+        // In a game the GUI sends the same position with one or two more moves each time, so only those are played.
+        boolean isContinuation = FEN.equals(positionFEN) && moves.size() >= positionMoves.size()
+                && moves.subList(0, positionMoves.size()).equals(positionMoves);
+        if (!isContinuation) {
+            Board newBoard = new Board(FEN);
+            // The FEN syntax may be fine while the position is not one the move generator can handle, such as one without a king.
+            String error = newBoard.getExceptionMessageForPositionValidityIfExists();
+            if (error != null) throw new IllegalArgumentException("Invalid position " + FEN + ": " + error);
+            board = newBoard;
+            positionFEN = FEN;
+            positionMoves.clear();
+        }
+        for (int i = positionMoves.size(); i < moves.size(); i++) {
+            board.makeMove(parseMove(board, moves.get(i)));
+            positionMoves.add(moves.get(i));
+        }
+    }
+    // Finds the legal move written in UCI's long algebraic notation, e.g. e2e4 or e7e8q, with the flags the board needs.
+    static int parseMove(Board board, String text) {
+        MoveList legalMoves = new MoveList();
+        board.generateLegalMoves(board.getToMove(), legalMoves);
+        for (int i = 0; i < legalMoves.size(); i++) {
+            if (Move.encodedToString(legalMoves.get(i)).equals(text)) return legalMoves.get(i);
+        }
+        throw new IllegalArgumentException("Illegal move " + text + " in " + board.getFEN() + ".");
+    }
+
+    // go [ponder] [depth N] [nodes N] [movetime N] [wtime N] [btime N] [winc N] [binc N] [movestogo N] [mate N] [infinite]
+    //    [searchmoves move ...]
+    private void go(String[] tokens) {
+        stopSearch();
+        Search.Limits limits = Search.Limits.infinite();
+        boolean ponder = false;
+        long moveTime = -1L, whiteTime = -1L, blackTime = -1L, whiteIncrement = 0L, blackIncrement = 0L;
+        int movesToGo = 0;
+        int mateMoves = 0;
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "ponder" -> ponder = true;
+                case "infinite" -> { }
+                case "depth" -> limits.depth = (int) parseNumber(tokens, ++i);
+                case "nodes" -> limits.nodes = parseNumber(tokens, ++i);
+                case "movetime" -> moveTime = parseNumber(tokens, ++i);
+                case "wtime" -> whiteTime = parseNumber(tokens, ++i);
+                case "btime" -> blackTime = parseNumber(tokens, ++i);
+                case "winc" -> whiteIncrement = parseNumber(tokens, ++i);
+                case "binc" -> blackIncrement = parseNumber(tokens, ++i);
+                case "movestogo" -> movesToGo = (int) parseNumber(tokens, ++i);
+                case "mate" -> mateMoves = (int) parseNumber(tokens, ++i);
+                // The search cannot be limited to some of the root moves, so the moves are skipped and all of them are searched.
+                case "searchmoves" -> {
+                    while (i + 1 < tokens.length && !GO_ARGUMENTS.contains(tokens[i + 1])) i++;
+                }
+                // UCI asks for arguments that are not understood to be ignored, so that the search still starts and ends with a best move.
+                default -> { }
+            }
+        }
+        // A mate in n moves is found by a search of 2n - 1 plies.
+        if (mateMoves > 0) limits.depth = Math.min(limits.depth, 2 * mateMoves - 1);
+        limits.depth = Math.max(1, Math.min(limits.depth, Search.MAX_PLY - 1));
+        boolean isWhite = board.getToMove() == PieceColor.White;
+        long remaining = isWhite ? whiteTime : blackTime;
+        long timeMillis = Long.MAX_VALUE;
+        if (moveTime >= 0L) {
+            timeMillis = Math.max(1L, moveTime - MOVE_OVERHEAD_MILLIS);
+        }
+        else if (remaining >= 0L) {
+            timeMillis = allocateTime(remaining, isWhite ? whiteIncrement : blackIncrement, movesToGo);
+        }
+        // A ponder search runs until ponderhit, which starts the clock for the move, or stop.
+        limits.timeMillis = ponder ? Long.MAX_VALUE : timeMillis;
+        synchronized (this) {
+            isPondering = ponder;
+            ponderTimeMillis = timeMillis;
+            searchLimits = limits;
+            searchStartTime = System.nanoTime();
+        }
+        Board searchBoard = new Board(board);
+        ParallelSearch threads = search;
+        searchThread = new Thread(() -> {
+            Search.Result result = null;
+            // The GUI waits for a best move after every go, so one is sent even if the search fails.
+            try {
+                result = threads.search(searchBoard, limits, iteration -> send("info " + iteration.toString(transpositionTable.hashfull())));
+            }
+            catch (RuntimeException e) {
+                send("info string Search failed: " + e);
+            }
+            // UCI does not allow the best move of a ponder search before ponderhit or stop.
+            synchronized (this) {
+                while (isPondering) {
+                    try {
+                        wait();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+            }
+            sendBestMove(result);
+        }, "uci-search");
+        searchThread.start();
+    }
+    private static long parseNumber(String[] tokens, int index) {
+        if (index >= tokens.length) throw new IllegalArgumentException("Missing number after " + tokens[index - 1] + ".");
+        try {
+            return Long.parseLong(tokens[index]);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number after " + tokens[index - 1] + ", but was given \"" + tokens[index] + "\".");
+        }
+    }
+    // Spends an even share of the remaining time on each move to go, plus most of the increment, and never more than the clock allows.
+    static long allocateTime(long remaining, long increment, int movesToGo) {
+        long share = remaining / ((movesToGo > 0) ? movesToGo : DEFAULT_MOVES_TO_GO) + increment * 3 / 4;
+        return Math.max(1L, Math.min(share, remaining - MOVE_OVERHEAD_MILLIS));
+    }
+    private synchronized void stop() {
+        isPondering = false;
+        notifyAll();
+        // The search thread clears the stop flag when the search starts, which may be after this; the time limit stays set.
+        if (searchLimits != null) searchLimits.timeMillis = 0L;
+        search.stop();
+    }
+    // The opponent played the move being pondered, so the search goes on as a normal search, with the time for the move counted from now.
+    private synchronized void ponderHit() {
+        if (!isPondering) return;
+        isPondering = false;
+        if (ponderTimeMillis != Long.MAX_VALUE) {
+            long elapsedMillis = (System.nanoTime() - searchStartTime) / 1_000_000L;
+            searchLimits.timeMillis = elapsedMillis + ponderTimeMillis;
+        }
+        notifyAll();
+    }
+    private void sendBestMove(Search.Result result) {
+        if (result == null || result.principalVariation.length == 0) {
+            send("bestmove 0000");
+        }
+        else if (result.principalVariation.length > 1) {
+            send("bestmove " + Move.encodedToString(result.principalVariation[0]) + " ponder " + Move.encodedToString(result.principalVariation[1]));
+        }
+        else {
+            send("bestmove " + Move.encodedToString(result.principalVariation[0]));
+        }
+    }
+    // Lines from the search thread and the reader thread must not interleave.
+    private void send(String line) {
+        synchronized (output) {
+            output.println(line);
+            output.flush();
+        }
+    }
+}
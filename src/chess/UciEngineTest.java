@@ -0,0 +1,142 @@
+package chess;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class UciEngineTest {
+    @Test
+    public void testHandshake() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        UciEngine engine = new UciEngine(new ByteArrayInputStream(new byte[0]), new PrintStream(output, true));
+        assertTrue(engine.handle("uci"));
+        assertTrue(engine.handle("isready"));
+        assertTrue(engine.handle("setoption name Hash value 32"));
+        assertTrue(engine.handle("setoption name Threads value 2"));
+        // Test that bad input is reported but does not stop the engine.
+        assertTrue(engine.handle("setoption name Hash value lots"));
+        assertTrue(engine.handle("xyzzy"));
+        String text = output.toString(StandardCharsets.UTF_8);
+        assertTrue(text.startsWith("id name " + UciEngine.NAME));
+        assertTrue(text.contains("option name Hash type spin"));
+        assertTrue(text.contains("uciok\nreadyok\n") || text.contains("uciok" + System.lineSeparator() + "readyok"));
+        assertTrue(text.contains("info string Option Hash must be a number"));
+        assertTrue(text.contains("info string Unknown command: xyzzy"));
+        assertFalse(engine.handle("quit"));
+    }
+    @Test
+    public void testPosition() {
+        UciEngine engine = new UciEngine(new ByteArrayInputStream(new byte[0]), new PrintStream(new ByteArrayOutputStream(), true));
+        engine.handle("position startpos moves e2e4 e7e5");
+        Board board = engine.getBoard();
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 2", board.getFEN());
+        // Test that a position that only adds moves is played on the same board, and keeps its history for repetitions.
+        engine.handle("position startpos moves e2e4 e7e5 g1f3 g8f6 f3g1 f6g8 g1f3 g8f6 f3g1 f6g8");
+        assertSame(board, engine.getBoard());
+        assertTrue(board.isRepetition());
+        // Test that any other position is set up from scratch, including castling and promotion moves.
+        engine.handle("position fen 4k3/1P6/8/8/8/8/8/R3K3 w Q - 0 1 moves e1c1 e8f7 b7b8n");
+        assertNotSame(board, engine.getBoard());
+        assertEquals("1N6/5k2/8/8/8/8/8/2KR4 b - - 0 2", engine.getBoard().getFEN());
+        engine.handle("position startpos moves e2e4");
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", engine.getBoard().getFEN());
+        // Test that an illegal move is rejected.
+        assertThrows(IllegalArgumentException.class, () -> UciEngine.parseMove(new Board(), "e2e5"));
+    }
+    @Test
+    public void testGo() throws IOException {
+        // Test that a search streams an info line for every iteration and ends with the best move and the move to ponder on.
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        String commands = String.join("\n", "uci", "position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1", "go depth 3", "isready", "quit");
+        new UciEngine(new ByteArrayInputStream(commands.getBytes(StandardCharsets.UTF_8)), new PrintStream(output, true)).run();
+        String text = output.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("info depth 1 score mate 1 "));
+        assertTrue(text.contains("bestmove a1a8"));
+        // Test that stop ends an infinite search with a best move, and that the same engine can search again.
+        output.reset();
+        UciEngine engine = new UciEngine(new ByteArrayInputStream(new byte[0]), new PrintStream(output, true));
+        engine.handle("position startpos");
+        engine.handle("go infinite");
+        engine.handle("isready");
+        engine.handle("stop");
+        engine.waitForSearch();
+        engine.handle("go depth 2");
+        engine.waitForSearch();
+        text = output.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("readyok"));
+        assertEquals(2, text.split("bestmove ", -1).length - 1);
+        assertTrue(text.contains("info depth 2 "));
+        engine.handle("quit");
+    }
+    @Test
+    public void testGoArguments() {
+        // Test that searchmoves, mate and arguments the engine does not know still start a search that ends with a best move.
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        UciEngine engine = new UciEngine(new ByteArrayInputStream(new byte[0]), new PrintStream(output, true));
+        engine.handle("position fen 6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        engine.handle("go searchmoves a1a8 g1f1 depth 2");
+        engine.waitForSearch();
+        engine.handle("go mate 1");
+        engine.waitForSearch();
+        engine.handle("go frobnicate 3 depth 1");
+        engine.waitForSearch();
+        String text = output.toString(StandardCharsets.UTF_8);
+        assertEquals(3, text.split("bestmove a1a8", -1).length - 1);
+        assertFalse(text.contains("info string"));
+        // Test that hashfull comes before the pv, which runs to the end of the line.
+        assertTrue(text.matches("(?s).*info depth 1 score mate 1 nodes \\d+ nps \\d+ time \\d+ hashfull \\d+ pv a1a8\\R.*"));
+        // Test that a position the move generator cannot handle is rejected and leaves the board as it was.
+        Board board = engine.getBoard();
+        engine.handle("position fen 8/8/8/8/8/8/8/R5K1 w - - 0 1 moves a1a8");
+        engine.handle("position fen 6k1/8/8/8/8/8/8/r5K1 b - - 0 1");
+        assertSame(board, engine.getBoard());
+        text = output.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("info string Invalid position 8/8/8/8/8/8/8/R5K1 w - - 0 1: Black has 0 kings, but should have 1."));
+        assertTrue(text.contains("info string Invalid position 6k1/8/8/8/8/8/8/r5K1 b - - 0 1: Black is to move, but can capture the other king."));
+        engine.handle("quit");
+    }
+    @Test(timeout = 20000)
+    public void testCommandsDuringSearch() throws IOException {
+        // Test that commands that need the search to be over end an infinite or ponder search instead of waiting for it, so that the
+        // input keeps being read and isready is answered.
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        String commands = String.join("\n", "position startpos", "go infinite", "position startpos moves e2e4", "isready",
+                "go ponder", "ucinewgame", "isready", "go infinite", "setoption name Hash value 8", "go infinite", "isready", "quit");
+        UciEngine engine = new UciEngine(new ByteArrayInputStream(commands.getBytes(StandardCharsets.UTF_8)), new PrintStream(output, true));
+        engine.run();
+        String text = output.toString(StandardCharsets.UTF_8);
+        assertEquals(3, text.split("readyok", -1).length - 1);
+        assertEquals(4, text.split("bestmove ", -1).length - 1);
+        // Test that the position was still set after the search it interrupted.
+        assertTrue(text.indexOf("bestmove ") < text.indexOf("readyok"));
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", engine.getBoard().getFEN());
+    }
+    @Test
+    public void testPonder() throws InterruptedException {
+        // Test that a ponder search holds back its best move, even after reaching its depth, until ponderhit.
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        UciEngine engine = new UciEngine(new ByteArrayInputStream(new byte[0]), new PrintStream(output, true));
+        engine.handle("position startpos moves e2e4");
+        engine.handle("go ponder depth 2 wtime 10000 btime 10000");
+        Thread.sleep(200);
+        assertFalse(output.toString(StandardCharsets.UTF_8).contains("bestmove"));
+        engine.handle("ponderhit");
+        engine.waitForSearch();
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("bestmove"));
+        engine.handle("quit");
+    }
+    @Test
+    public void testAllocateTime() {
+        // Test that the time is shared over the moves to go, plus most of the increment, and never exceeds the clock.
+        assertEquals(1000L, UciEngine.allocateTime(30_000L, 0L, 0));
+        assertEquals(2000L + 750L, UciEngine.allocateTime(20_000L, 1000L, 10));
+        assertEquals(50L, UciEngine.allocateTime(100L, 1000L, 1));
+        assertEquals(1L, UciEngine.allocateTime(10L, 0L, 1));
+    }
+}
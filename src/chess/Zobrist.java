@@ -0,0 +1,81 @@
+package chess;
+
+// Zobrist hashing gives every position a 64-bit key: one random number for each piece on each square, for black to move,
+// for each set of castling rights and for each en passant file, XORed together for the features the position has.
+// Because XOR undoes itself, a move only has to XOR in and out the features it changes, which is what Board does.
+// The numbers come from a fixed seed, so keys are the same on every run and can be stored.
+public class Zobrist {
+    // Indexed by [piece index (see Board.getPieceIndex)][square].
+    public static final long[][] PIECE_SQUARE = new long[Board.PIECE_KINDS * 2][Bitboard.SQUARE_COUNT];
+    public static final long BLACK_TO_MOVE;
+    // Indexed by castling mask, so a change of rights is a single XOR of the old and new entries.
+    public static final long[] CASTLING = new long[16];
+    public static final long[] EN_PASSANT_FILE = new long[Board.BOARD_DIMENSION];
+
+    private static long seed = 0x2545F4914F6CDD1DL;
+    static {
+        for (long[] pieceKeys : PIECE_SQUARE) {
+            for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+                pieceKeys[square] = nextRandom();
+            }
+        }
+        BLACK_TO_MOVE = nextRandom();
+        // No castling rights leaves the key unchanged, like an empty square.
+        for (int mask = 1; mask < CASTLING.length; mask++) {
+            CASTLING[mask] = nextRandom();
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = nextRandom();
+        }
+    }
+
+    private Zobrist() { }
+
+    /*
+    Method Tested in BoardTest.java
+    Description: This method computes the key of a position from scratch. Board keeps its key up to date move by move instead, so this is
+                 for setting up a position and for checking the incremental key.
+    Parameters: board(Board) -> the position to hash
+    Returns: the 64-bit key of the position.
+    Examples: refer to test method.
+     */
+    public static long compute(Board board) {
+        long key = 0L;
+        for (int square = 0; square < Bitboard.SQUARE_COUNT; square++) {
+            int piece = board.getPieceAt(square);
+            if (piece != Board.EMPTY_SQUARE) key ^= PIECE_SQUARE[piece][square];
+        }
+        PieceColor toMove = board.getToMove();
+        if (toMove == PieceColor.Black) key ^= BLACK_TO_MOVE;
+        key ^= CASTLING[board.getCastlingMask()];
+        key ^= enPassantKey(board.getEnPassantTargetSquare(), toMove, board.getPieceBitboard(PieceType.Pawn, toMove));
+        return key;
+    }
+    // The key of the pawns alone, with no side to move, castling or en passant, as Board.pawnKey() keeps it.
+    public static long computePawnKey(Board board) {
+        long key = 0L;
+        for (PieceColor color : new PieceColor[]{PieceColor.White, PieceColor.Black}) {
+            int pawn = Board.getPieceIndex(PieceType.Pawn, color);
+            for (long pawns = board.getPieceBitboard(PieceType.Pawn, color); pawns != 0L; pawns = Bitboard.removeLowestSquare(pawns)) {
+                key ^= PIECE_SQUARE[pawn][Bitboard.lowestSquare(pawns)];
+            }
+        }
+        return key;
+    }
+    // The en passant file only counts when a pawn of the side to move can actually capture there. Otherwise the position is the same as
+    // without the target square, and a transposition that happens to end with a double pawn push should still find the same key.
+    public static long enPassantKey(int enPassantTargetSquare, PieceColor toMove, long sideToMovePawns) {
+        if (enPassantTargetSquare == Bitboard.NO_SQUARE) return 0L;
+        // A pawn of the side to move attacks the target square if a pawn of the other color on the target square would attack the pawn.
+        if ((AttackTables.PAWN_ATTACKS[toMove.ordinal() ^ 1][enPassantTargetSquare] & sideToMovePawns) == 0L) return 0L;
+        return EN_PASSANT_FILE[Bitboard.colOf(enPassantTargetSquare)];
+    }
+
+    // SplitMix64, which is small and passes statistical tests, so the keys do not depend on java.util.Random's implementation.
+    private static long nextRandom() {
+        long z = (seed += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}